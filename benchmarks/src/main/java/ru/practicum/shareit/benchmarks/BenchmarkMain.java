@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Обычный запуск JMH, но по умолчанию результаты пишутся в {@code jmh-result.json} —
+ * их сравнивают между релизами. Явные {@code -rf}/{@code -rff} имеют приоритет.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        var cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        var options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+        if (!cmd.getResult().hasValue()) options.result("jmh-result.json");
+        //ItemCreateBenchmark ходит в живой сервис — только по явному имени
+        if (cmd.getIncludes().isEmpty()) options.exclude(ItemCreateBenchmark.class.getSimpleName());
+        var runner = new Runner(options.build());
+        if (cmd.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.enums.BookingPhase;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.comment.ItemCommentRow;
+import ru.practicum.shareit.item.summary.OwnerItemRow;
+import ru.practicum.shareit.user.User;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Детерминированные наборы данных и заглушки репозиториев без Spring-контекста.
+ */
+final class Fixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private static final String[] WORDS = {
+            "дрель", "перфоратор", "отвертка", "пила", "лобзик", "шуруповерт", "лестница", "молоток",
+            "аккумуляторная", "ударная", "садовая", "строительная", "профессиональная", "компактная"
+    };
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return new User(id, "user" + id, "user" + id + "@example.com");
+    }
+
+    static Item item(long id, User owner, Random random) {
+        String name = WORDS[random.nextInt(8)] + " " + WORDS[8 + random.nextInt(WORDS.length - 8)];
+        String description = name + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        return new Item(id, name, description, true, owner, null);
+    }
+
+    static List<Item> items(int count, User owner) {
+        var random = new Random(42);
+        var items = new ArrayList<Item>(count);
+        for (long id = 1; id <= count; id++) items.add(item(id, owner, random));
+        return items;
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        var booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(NOW.plusDays(id));
+        booking.setEnd(NOW.plusDays(id + 1));
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setPhase(BookingPhase.FUTURE);
+        return booking;
+    }
+
+    static OwnerItemRow ownerRow(Item item, long bookerId) {
+        return new OwnerItemRow(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getId() * 10, bookerId, NOW.minusDays(3), NOW.minusDays(2),
+                item.getId() * 10 + 1, bookerId, NOW.plusDays(2), NOW.plusDays(3), 0L);
+    }
+
+    static BookingRow bookingRow(Booking booking) {
+        return new BookingRow(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    /**
+     * Отзывы в порядке {@code findNewestByItems}: по вещам, новые сначала.
+     */
+    static List<ItemCommentRow> comments(List<Item> items, int perItem, User author) {
+        var comments = new ArrayList<ItemCommentRow>();
+        long id = 1;
+        for (Item item : items) {
+            for (int i = perItem - 1; i >= 0; i--) {
+                comments.add(new CommentLine(item.getId(), id++, author.getName(),
+                        "отзыв " + i + " о вещи " + item.getId(), NOW.minusDays(perItem - i)));
+            }
+        }
+        return comments;
+    }
+
+    private record CommentLine(Long getItemId, Long getId, String getAuthorName, String getText,
+                               LocalDateTime getCreated) implements ItemCommentRow {
+    }
+
+    static Path tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void deleteDir(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    /**
+     * Реализация интерфейса репозитория, отвечающая только на перечисленные методы.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            var answer = answers.get(method.getName());
+            if (answer != null) return answer.apply(args);
+            if (method.getName().equals("toString")) return type.getSimpleName() + " stub";
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+        });
+    }
+}
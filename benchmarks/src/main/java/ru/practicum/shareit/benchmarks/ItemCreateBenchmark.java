@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Строк в секунду: POST /items по одной против POST /items/batch.
+ * Нужен запущенный сервис, адрес — {@code -Dshareit.url} (по умолчанию http://localhost:8080);
+ * в общий прогон не входит, запускать явно: {@code java -jar target/benchmarks.jar ItemCreate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(4)
+public class ItemCreateBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int batch;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String url;
+    private long ownerId;
+    private String body;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        url = System.getProperty("shareit.url", "http://localhost:8080");
+        String email = "bench" + System.nanoTime() + "@example.com";
+        var created = send("/users", null, "{\"name\":\"bench\",\"email\":\"" + email + "\"}");
+        ownerId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        var item = "{\"name\":\"bench item\",\"description\":\"created by ItemCreateBenchmark\",\"available\":true}";
+        if (batch == 1) {
+            body = item;
+        } else {
+            var rows = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < batch; i++) rows.add(item);
+            body = rows.toString();
+        }
+    }
+
+    @Benchmark
+    public String create(Rows rows) throws Exception {
+        String response = send(batch == 1 ? "/items" : "/items/batch", ownerId, body);
+        rows.rows += batch;
+        return response;
+    }
+
+    private String send(String path, Long userId, String json) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (userId != null) request.header("X-Sharer-User-Id", userId.toString());
+        var response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(path + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemServiceImp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemServiceImp.search с триграммным индексом в памяти: поиск, страница и сборка ItemDto.
+ * Гидрация из БД заменена картой, чтобы замер не зависел от JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    @Param({"1000", "100000"})
+    public int items;
+
+    //частый, редкий и короче триграммы
+    @Param({"дрель", "профессиональная лестница", "пи"})
+    public String text;
+
+    private ItemServiceImp service;
+
+    @Setup
+    public void setUp() {
+        var all = Fixtures.items(items, Fixtures.user(1));
+        service = ItemServices.forSearch(all, ItemServices.searchIndex(all));
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return service.search(2L, text, null, null, 0, 20);
+    }
+}
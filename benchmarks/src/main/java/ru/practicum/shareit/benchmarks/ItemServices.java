@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.booking.availability.CompletedStays;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.comment.CommentMapperImpl;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.ItemCommentRow;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRow;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemServiceImp;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.item.summary.OwnerItemRow;
+import ru.practicum.shareit.user.repository.UserRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ItemServiceImp} поверх данных в памяти: замеряется Java-часть сервиса без JDBC.
+ */
+final class ItemServices {
+
+    private ItemServices() {
+    }
+
+    static ItemSearchIndex searchIndex(List<Item> items) {
+        var itemRepository = Fixtures.stub(ItemRepository.class, Map.of(
+                "findByAvailableTrue", args -> items));
+        var bookingRepository = Fixtures.stub(BookingRepository.class, Map.of(
+                "findIntervalsEndingAfter", args -> List.of()));
+        var intervals = new BookingIntervals(bookingRepository, null);
+        intervals.load();
+        var index = new ItemSearchIndex(itemRepository, intervals, null);
+        index.load();
+        return index;
+    }
+
+    /**
+     * Сервис для поиска: findRowsByIdIn отвечает из карты, поиск — переданный индекс.
+     */
+    static ItemServiceImp forSearch(List<Item> items, ItemSearch search) {
+        Map<Long, ItemRow> byId = items.stream().collect(Collectors.toMap(Item::getId, item -> new ItemRow(
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwner().getId(), null)));
+        var itemRepository = Fixtures.stub(ItemRepository.class, Map.of(
+                "findRowsByIdIn", args -> ((Collection<?>) args[0]).stream()
+                        .map(byId::get)
+                        .toList()));
+        return create(itemRepository, search, null, null);
+    }
+
+    /**
+     * Сервис для списка владельца: страница строк и последние отзывы к ней уже «загружены».
+     */
+    static ItemServiceImp forOwnerList(List<OwnerItemRow> rows, List<ItemCommentRow> comments) {
+        var summaryRepository = Fixtures.stub(ItemSummaryRepository.class, Map.of(
+                "findByOwner", args -> new SliceImpl<>(rows, (Pageable) args[1], false)));
+        var commentRepository = Fixtures.stub(CommentRepository.class, Map.of(
+                "findNewestByItems", args -> comments));
+        return create(null, null, summaryRepository, commentRepository);
+    }
+
+    private static ItemServiceImp create(ItemRepository itemRepository, ItemSearch search,
+                                         ItemSummaryRepository summaryRepository,
+                                         CommentRepository commentRepository) {
+        return new ItemServiceImp(
+                itemRepository,
+                (UserRepository) null,
+                new ItemMapperImpl(),
+                new CommentMapperImpl(),
+                commentRepository,
+                search,
+                (ItemCache) null,
+                summaryRepository,
+                null,
+                (BookingIntervals) null,
+                (BookingRepository) null,
+                (CompletedStays) null);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+
+    private User user;
+    private Item item;
+    private Booking booking;
+    private BookingRow bookingRow;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1);
+        item = Fixtures.item(1, user, new Random(42));
+        booking = Fixtures.booking(1, item, Fixtures.user(2));
+        bookingRow = Fixtures.bookingRow(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingRowToDto() {
+        return bookingMapper.toDto(bookingRow);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemOwnerDto itemToOwnerDto() {
+        return itemMapper.toOwnerDto(item);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return UserMapper.toDto(user);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.service.ItemServiceImp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответа findAllByOwnerWithBookings из страницы item_summary и отзывов:
+ * маппинг вещей, группировка отзывов по вещи, last/next из сводки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerAssemblyBenchmark {
+
+    @Param({"20", "200"})
+    public int size;
+
+    @Param({"0", "5"})
+    public int commentsPerItem;
+
+    private ItemServiceImp service;
+
+    @Setup
+    public void setUp() {
+        var owner = Fixtures.user(1);
+        var author = Fixtures.user(2);
+        var items = Fixtures.items(size, owner);
+        var rows = items.stream().map(item -> Fixtures.ownerRow(item, author.getId())).toList();
+        service = ItemServices.forOwnerList(rows, Fixtures.comments(items, commentsPerItem, author));
+    }
+
+    @Benchmark
+    public List<ItemOwnerDto> assemble() {
+        return service.findAllByOwnerWithBookings(1L, 0, size);
+    }
+}
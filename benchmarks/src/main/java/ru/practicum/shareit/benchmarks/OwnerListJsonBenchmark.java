@@ -0,0 +1,56 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemOwnerDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответа GET /items тем же ObjectMapper, что собирает Spring Boot по умолчанию.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerListJsonBenchmark {
+
+    @Param({"20", "200"})
+    public int size;
+
+    @Param({"0", "5"})
+    public int commentsPerItem;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<ItemOwnerDto> page;
+
+    @Setup
+    public void setUp() {
+        ItemMapper itemMapper = new ItemMapperImpl();
+        var owner = Fixtures.user(1);
+        page = Fixtures.items(size, owner).stream().map(item -> {
+            var dto = itemMapper.toOwnerDto(item);
+            dto.setLastBooking(new BookingShortDto(item.getId() * 10, 2L,
+                    Fixtures.NOW.minusDays(3), Fixtures.NOW.minusDays(2)));
+            dto.setNextBooking(new BookingShortDto(item.getId() * 10 + 1, 2L,
+                    Fixtures.NOW.plusDays(2), Fixtures.NOW.plusDays(3)));
+            for (int i = 0; i < commentsPerItem; i++) {
+                dto.getComments().add(new CommentDto((long) i, "user2", Fixtures.NOW.minusDays(i), "отзыв " + i));
+            }
+            return dto;
+        }).toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Дозапись в {@link RequestLog}: append и ожидание сброса, как в {@code RequestRepositoryImpl.save}.
+ * С fsync=true параллельные записи ждут общего force — число операций на один сброс растёт с числом потоков.
+ * Каталог — во временной папке, {@code -Djava.io.tmpdir} выбирает диск.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RequestLogAppendBenchmark {
+
+    @Param({"false", "true"})
+    public boolean fsync;
+
+    private Path dir;
+    private RequestLog journal;
+    private ItemRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("request-log-append");
+        journal = new RequestLog(dir.toString(), DataSize.ofMegabytes(64), fsync, DataSize.ofGigabytes(1));
+        journal.recover(r -> {
+        });
+        request = new ItemRequest(1L, "Нужна дрель на выходные", 42L, Fixtures.NOW);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Fixtures.deleteDir(dir);
+    }
+
+    @Benchmark
+    public long append() {
+        long end = journal.append(request);
+        journal.await(end);
+        return end;
+    }
+}
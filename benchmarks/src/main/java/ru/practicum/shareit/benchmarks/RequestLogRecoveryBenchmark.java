@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.repository.RequestLog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время восстановления {@link RequestLog}: чтение, проверка CRC и разбор всех записей — из журнала
+ * или из снимка. Построение индексов репозитория сюда не входит.
+ * Файлы после подготовки остаются в кэше страниц ОС, так что это восстановление «тёплого» перезапуска.
+ * На 10M записей журнал и снимок занимают около 600 МБ каждый.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RequestLogRecoveryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int entries;
+
+    @Param({"log", "snapshot"})
+    public String source;
+
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("request-log-recovery");
+        RequestLog journal = open();
+        journal.recover(r -> {
+        });
+        if (source.equals("log")) {
+            requests().forEachRemaining(journal::append);
+        } else {
+            journal.snapshot(journal.end(), this::requests);
+        }
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Fixtures.deleteDir(dir);
+    }
+
+    @Benchmark
+    public void recover(Blackhole bh) {
+        RequestLog journal = open();
+        journal.recover(bh::consume);
+        journal.close();
+    }
+
+    private RequestLog open() {
+        return new RequestLog(dir.toString(), DataSize.ofMegabytes(64), false, DataSize.ofGigabytes(64));
+    }
+
+    private Iterator<ItemRequest> requests() {
+        return new Iterator<>() {
+            private long id;
+
+            @Override
+            public boolean hasNext() {
+                return id < entries;
+            }
+
+            @Override
+            public ItemRequest next() {
+                id++;
+                return new ItemRequest(id, "Нужна дрель " + id, id % 10_000, Fixtures.NOW.plusSeconds(id));
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Тонкая обёртка над HttpClient: один вызов — одна запись в {@link Metrics} под именем маршрута
+ * (шаблон пути, а не сам путь, иначе каждый id стал бы отдельной строкой отчёта).
+ */
+final class Client {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // запланированное время старта следующего вызова потока (0 — без расписания), см. --rate
+    private static final ThreadLocal<long[]> SCHEDULED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final HttpClient http;
+    private final URI base;
+    private final Metrics metrics;
+
+    Client(URI base, Metrics metrics) {
+        this.base = base;
+        this.metrics = metrics;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        long id() {
+            return body.path("id").asLong();
+        }
+    }
+
+    /**
+     * Задержка следующего вызова этого потока считается от {@code nanoTime}, а не от фактической отправки:
+     * если сервис притормозил и поток опоздал к своему слоту, ожидание тоже попадёт в гистограмму.
+     */
+    static void scheduleNext(long nanoTime) {
+        SCHEDULED.get()[0] = nanoTime;
+    }
+
+    Response get(String route, String path, Long userId) {
+        return send(route, "GET", path, userId, null);
+    }
+
+    Response post(String route, String path, Long userId, Object body) {
+        return send(route, "POST", path, userId, body);
+    }
+
+    Response patch(String route, String path, Long userId, Object body) {
+        return send(route, "PATCH", path, userId, body);
+    }
+
+    Response delete(String route, String path, Long userId) {
+        return send(route, "DELETE", path, userId, null);
+    }
+
+    private Response send(String route, String method, String path, Long userId, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        if (userId != null) request.header(USER_HEADER, userId.toString());
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+            request.method(method, HttpRequest.BodyPublishers.ofByteArray(write(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long[] scheduled = SCHEDULED.get();
+        long start = scheduled[0] != 0 ? Math.min(scheduled[0], System.nanoTime()) : System.nanoTime();
+        scheduled[0] = 0;
+        int status = 0;
+        byte[] bytes = null;
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            bytes = response.body();
+        } catch (IOException e) {
+            // status 0 — ответа нет, в отчёте это failures
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (metrics != null) metrics.record(route, System.nanoTime() - start, status);
+        }
+        return new Response(status, read(bytes));
+    }
+
+    static byte[] write(Object value) {
+        try {
+            return JSON.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonNode read(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return MissingNode.getInstance();
+        try {
+            return JSON.readTree(bytes);
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Данные, которые прогон создаёт себе через API перед замером. Email-ы помечены идентификатором прогона,
+ * поэтому повторный запуск против той же базы не упирается в уникальность.
+ */
+final class Dataset {
+
+    static final String[] WORDS = {
+        "дрель", "лестница", "палатка", "велосипед", "шуруповёрт", "пила", "перфоратор", "байдарка",
+        "проектор", "самокат", "мангал", "спальник", "гитара", "фотоаппарат", "удочка", "компрессор"
+    };
+    private static final String[] ADJECTIVES = {
+        "профессиональная", "складная", "лёгкая", "аккумуляторная", "туристическая", "детская", "большая"
+    };
+
+    record Item(long id, long owner) {
+    }
+
+    record Pair(long user, long item) {
+    }
+
+    record Pending(long booking, long owner) {
+    }
+
+    final String runId = Long.toString(System.currentTimeMillis(), 36);
+    final List<Long> users = new ArrayList<>();
+    final List<Item> items = new ArrayList<>();
+    final List<Long> requests = new ArrayList<>();
+    final List<Long> bookings = new ArrayList<>();
+    // у пользователя есть завершённая одобренная бронь вещи — можно оставлять отзывы
+    final List<Pair> commenters = new ArrayList<>();
+    // общая очередь ожидающих броней для сценария approve-race
+    final ConcurrentLinkedDeque<Pending> pending = new ConcurrentLinkedDeque<>();
+    final AtomicLong sequence = new AtomicLong();
+    // начало окна для броней прогона: всё в будущем, подальше от «сейчас»
+    final LocalDateTime epoch = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    Item hot() {
+        return items.get(0);
+    }
+
+    static Dataset prepare(Client client, Options options) throws InterruptedException {
+        Dataset d = new Dataset();
+        Random random = new Random(options.seed());
+
+        for (int i = 0; i < options.users(); i++) {
+            d.users.add(d.createUser(client, "lt-" + d.runId + "-" + i));
+        }
+        for (int i = 0; i < options.items(); i++) {
+            // первая вещь — «популярная», её владелец — первый пользователь
+            long owner = i == 0 ? d.users.get(0) : d.users.get(random.nextInt(d.users.size()));
+            var response = client.post("POST /items", "/items", owner, d.itemBody(random, true));
+            require(response, "POST /items");
+            d.items.add(new Item(response.id(), owner));
+        }
+        for (int i = 0; i < Math.min(options.users(), 20); i++) {
+            long user = d.users.get(i);
+            var response = client.post("POST /requests", "/requests", user,
+                    Map.of("description", "Нужна " + WORDS[random.nextInt(WORDS.length)]));
+            require(response, "POST /requests");
+            d.requests.add(response.id());
+        }
+        // по несколько будущих броней на пользователя, чтобы списки не были пустыми
+        for (long booker : d.users) {
+            for (int i = 0; i < 5; i++) {
+                Item item = d.items.get(random.nextInt(d.items.size()));
+                if (item.owner() == booker) continue;
+                LocalDateTime start = d.epoch.plusDays(random.nextInt(365)).plusHours(random.nextInt(24));
+                var response = client.post("POST /bookings", "/bookings", booker,
+                        booking(item.id(), start, start.plusHours(1 + random.nextInt(72))));
+                if (response.ok()) d.bookings.add(response.id());
+            }
+        }
+        d.prepareCommenters(client, options.commenters());
+        return d;
+    }
+
+    // бронь на пару секунд, одобрение владельцем и ожидание её окончания
+    private void prepareCommenters(Client client, int count) throws InterruptedException {
+        LocalDateTime end = LocalDateTime.now();
+        // разные вещи, чтобы одобренные брони не пересекались
+        for (int i = 1; i < items.size() && commenters.size() < count; i++) {
+            Item item = items.get(i);
+            long booker = users.get(i % users.size());
+            if (booker == item.owner()) continue;
+            LocalDateTime start = LocalDateTime.now().plusSeconds(1);
+            end = start.plusSeconds(1);
+            var created = client.post("POST /bookings", "/bookings", booker, booking(item.id(), start, end));
+            if (!created.ok()) continue;
+            var approved = client.patch("PATCH /bookings/{id}", "/bookings/" + created.id() + "?approved=true",
+                    item.owner(), null);
+            if (approved.ok()) commenters.add(new Pair(booker, item.id()));
+        }
+        long wait = Duration.between(LocalDateTime.now(), end).toMillis() + 500;
+        if (wait > 0) Thread.sleep(wait);
+    }
+
+    long createUser(Client client, String login) {
+        var response = client.post("POST /users", "/users", null,
+                Map.of("name", login, "email", login + "@load.test"));
+        require(response, "POST /users");
+        return response.id();
+    }
+
+    Map<String, Object> itemBody(Random random, boolean available) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        return Map.of(
+                "name", ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + word,
+                "description", word + " в хорошем состоянии, прогон " + runId,
+                "available", available);
+    }
+
+    static Map<String, Object> booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return Map.of(
+                "itemId", itemId,
+                "start", start.truncatedTo(ChronoUnit.SECONDS).toString(),
+                "end", end.truncatedTo(ChronoUnit.SECONDS).toString());
+    }
+
+    private static void require(Client.Response response, String route) {
+        if (!response.ok()) {
+            throw new IllegalStateException(route + " при подготовке данных: HTTP " + response.status()
+                    + " " + response.body());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон против запущенного приложения.
+ * <p>
+ * Подготовка данных через API, прогрев, замер заданной длительности, затем {@code <out>.json}
+ * (сводка для сравнения сборок) и {@code <out>.hlog} (интервальные гистограммы HdrHistogram по маршрутам,
+ * открываются HistogramLogAnalyzer). {@code compare base.json head.json} печатает разницу двух прогонов.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.print(Options.USAGE);
+            return;
+        }
+        if (args.length == 3 && args[0].equals("compare")) {
+            Report.compare(Path.of(args[1]), Path.of(args[2]), System.out);
+            return;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+        run(options);
+    }
+
+    static void run(Options options) throws Exception {
+        System.out.printf("подготовка данных на %s: %d пользователей, %d вещей%n",
+                options.setupUrl(), options.users(), options.items());
+        Dataset data = Dataset.prepare(new Client(options.setupUrl(), null), options);
+
+        Metrics metrics = new Metrics();
+        Client client = new Client(options.url(), metrics);
+        Path hlog = Path.of(options.out() + ".hlog");
+        Path json = Path.of(options.out() + ".json");
+
+        try (PrintStream log = new PrintStream(hlog.toFile());
+             ExecutorService pool = options.virtual()
+                     ? Executors.newVirtualThreadPerTaskExecutor()
+                     : Executors.newFixedThreadPool(options.threads())) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputLogFormatVersion();
+            writer.outputComment("shareit load test, scenario " + options.scenario().label());
+            writer.outputLegend();
+
+            long begin = System.nanoTime();
+            long measureFrom = begin + options.warmup().toNanos();
+            long deadline = measureFrom + options.duration().toNanos();
+            // период между вызовами одного потока при заданном общем RPS
+            long period = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(options.threads()) / options.rate()) : 0;
+
+            System.out.printf("сценарий %s: %d потоков, прогрев %d с, замер %d с%n", options.scenario().label(),
+                    options.threads(), options.warmup().toSeconds(), options.duration().toSeconds());
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < options.threads(); i++) {
+                Worker worker = new Worker(client, data, options.seed(), i);
+                // разносим старт потоков по периоду, чтобы при --rate они не шли пачкой
+                long offset = period * i / options.threads();
+                workers.add(pool.submit(() -> loop(options.scenario(), worker, begin + offset, period, deadline)));
+            }
+
+            Instant started = null;
+            writer.setBaseTime(System.currentTimeMillis());
+            while (System.nanoTime() < deadline) {
+                TimeUnit.SECONDS.sleep(1);
+                if (started == null && System.nanoTime() >= measureFrom) {
+                    metrics.startMeasuring(writer);
+                    started = Instant.now();
+                    writer.setBaseTime(started.toEpochMilli());
+                    writer.outputStartTime(started.toEpochMilli());
+                } else {
+                    metrics.drain(writer);
+                }
+            }
+            for (Future<?> worker : workers) worker.get();
+            metrics.stopMeasuring(writer);
+            if (started == null) started = Instant.now();
+
+            Duration measured = Duration.between(started, Instant.now());
+            var report = Report.build(options, metrics, started, measured);
+            Report.write(report, json);
+            Report.print(report, System.out);
+        }
+        System.out.printf("%nотчёт: %s, гистограммы: %s%n", json, hlog);
+    }
+
+    private static void loop(Scenario scenario, Worker worker, long first, long period, long deadline) {
+        long next = first;
+        while (System.nanoTime() < deadline) {
+            if (period > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                Client.scheduleNext(next);
+                next += period;
+            }
+            scenario.step(worker);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки по маршрутам. Рабочие потоки пишут в Recorder без блокировок,
+ * поток отчёта раз в интервал забирает срез, копит его и пишет в .hlog.
+ */
+final class Metrics {
+
+    // до минуты в микросекундах, три значащих цифры
+    static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+
+    void record(String route, long latencyNanos, int status) {
+        Route r = routes.computeIfAbsent(route, Route::new);
+        r.recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_MICROS));
+        if (!measuring) return;
+        if (status >= 200 && status < 300) r.ok.increment();
+        else if (status == 409) r.conflicts.increment();
+        else if (status >= 400 && status < 500) r.clientErrors.increment();
+        else if (status >= 500) r.serverErrors.increment();
+        else r.failures.increment();
+    }
+
+    /**
+     * Забрать накопленное за интервал. Во время прогрева срез выбрасывается.
+     */
+    void drain(HistogramLogWriter log) {
+        for (Route r : routes.values()) {
+            r.interval = r.recorder.getIntervalHistogram(r.interval);
+            if (!measuring) continue;
+            r.total.add(r.interval);
+            r.interval.setTag(r.name);
+            if (log != null && r.interval.getTotalCount() > 0) log.outputIntervalHistogram(r.interval);
+        }
+    }
+
+    void startMeasuring(HistogramLogWriter log) {
+        drain(log);
+        measuring = true;
+    }
+
+    void stopMeasuring(HistogramLogWriter log) {
+        drain(log);
+        measuring = false;
+    }
+
+    Map<String, Route> routes() {
+        return new TreeMap<>(routes);
+    }
+
+    static final class Route {
+        final String name;
+        final Recorder recorder = new Recorder(MAX_MICROS, 3);
+        final Histogram total = new Histogram(MAX_MICROS, 3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        // обрыв соединения, таймаут — ответа не было
+        final LongAdder failures = new LongAdder();
+        private Histogram interval;
+
+        private Route(String name) {
+            this.name = name;
+        }
+    }
+}
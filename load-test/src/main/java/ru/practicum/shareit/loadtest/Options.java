@@ -0,0 +1,86 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры прогона: --ключ=значение, всё необязательно.
+ */
+record Options(URI url,
+               URI setupUrl,
+               Scenario scenario,
+               int threads,
+               boolean virtual,
+               double rate,
+               Duration warmup,
+               Duration duration,
+               int users,
+               int items,
+               int commenters,
+               long seed,
+               Path out) {
+
+    static final String USAGE = """
+            java -jar load-test.jar [--ключ=значение ...]
+              --url=http://localhost:8080   куда идёт нагрузка
+              --setup-url=<url>             куда идёт подготовка данных (по умолчанию --url)
+              --scenario=mixed              mixed | bookings-items | hot-item | approve-race | reads
+              --threads=32                  число рабочих потоков
+              --virtual=false               рабочие потоки — виртуальные
+              --rate=0                      целевой общий RPS (0 — закрытый цикл без пауз)
+              --warmup=10s --duration=30s   прогрев не попадает в отчёт
+              --users=100 --items=300       объём подготовленных данных
+              --commenters=20               пар (пользователь, вещь) с завершённой бронью
+              --seed=42
+              --out=load-report             префикс файлов отчёта (.json и .hlog)
+            java -jar load-test.jar compare base.json head.json
+            """;
+
+    private static final Set<String> KNOWN = Set.of("url", "setup-url", "scenario", "threads", "virtual", "rate",
+            "warmup", "duration", "users", "items", "commenters", "seed", "out");
+
+    static Options parse(String[] args) {
+        Map<String, String> kv = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("ожидается --ключ=значение: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            kv.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        URI url = URI.create(kv.getOrDefault("url", "http://localhost:8080"));
+        Options options = new Options(
+                url,
+                kv.containsKey("setup-url") ? URI.create(kv.get("setup-url")) : url,
+                Scenario.of(kv.getOrDefault("scenario", "mixed")),
+                Integer.parseInt(kv.getOrDefault("threads", "32")),
+                Boolean.parseBoolean(kv.getOrDefault("virtual", "false")),
+                Double.parseDouble(kv.getOrDefault("rate", "0")),
+                duration(kv.getOrDefault("warmup", "10s")),
+                duration(kv.getOrDefault("duration", "30s")),
+                Integer.parseInt(kv.getOrDefault("users", "100")),
+                Integer.parseInt(kv.getOrDefault("items", "300")),
+                Integer.parseInt(kv.getOrDefault("commenters", "20")),
+                Long.parseLong(kv.getOrDefault("seed", "42")),
+                Path.of(kv.getOrDefault("out", "load-report")));
+        kv.keySet().removeAll(KNOWN);
+        if (!kv.isEmpty()) throw new IllegalArgumentException("неизвестные параметры: " + kv.keySet());
+        if (options.threads < 1 || options.users < 2 || options.items < 1) {
+            throw new IllegalArgumentException("threads >= 1, users >= 2, items >= 1");
+        }
+        return options;
+    }
+
+    // 30s, 2m, 500ms или ISO-8601 (PT30S)
+    private static Duration duration(String value) {
+        if (value.startsWith("PT")) return Duration.parse(value);
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Отчёт прогона: JSON для сравнения между сборками и таблица в консоль.
+ * Задержки — в миллисекундах, пропускная способность — запросов в секунду.
+ */
+final class Report {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] PERCENTILES = {"p50", "p90", "p99", "p999"};
+    private static final double[] LEVELS = {50, 90, 99, 99.9};
+
+    private Report() {
+    }
+
+    static Map<String, Object> build(Options options, Metrics metrics, Instant started, Duration measured) {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        Histogram all = new Histogram(Metrics.MAX_MICROS, 3);
+        long[] outcomes = new long[5];
+        for (var r : metrics.routes().values()) {
+            long[] counts = {r.ok.sum(), r.conflicts.sum(), r.clientErrors.sum(), r.serverErrors.sum(), r.failures.sum()};
+            if (r.total.getTotalCount() == 0) continue;
+            routes.put(r.name, stats(r.total, counts, measured));
+            all.add(r.total);
+            for (int i = 0; i < outcomes.length; i++) outcomes[i] += counts[i];
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", options.scenario().label());
+        report.put("url", options.url().toString());
+        report.put("threads", options.threads());
+        report.put("virtualThreads", options.virtual());
+        report.put("targetRate", options.rate());
+        report.put("startedAt", started.toString());
+        report.put("warmupSeconds", options.warmup().toSeconds());
+        report.put("durationSeconds", measured.toMillis() / 1000.0);
+        report.put("total", stats(all, outcomes, measured));
+        report.put("routes", routes);
+        return report;
+    }
+
+    private static Map<String, Object> stats(Histogram h, long[] counts, Duration measured) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(h.getMean() / 1000.0));
+        for (int i = 0; i < LEVELS.length; i++) {
+            latency.put(PERCENTILES[i], round(h.getValueAtPercentile(LEVELS[i]) / 1000.0));
+        }
+        latency.put("max", round(h.getMaxValue() / 1000.0));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", h.getTotalCount());
+        stats.put("throughput", round(h.getTotalCount() / Math.max(measured.toMillis() / 1000.0, 0.001)));
+        stats.put("ok", counts[0]);
+        stats.put("conflicts", counts[1]);
+        stats.put("clientErrors", counts[2]);
+        stats.put("serverErrors", counts[3]);
+        stats.put("failures", counts[4]);
+        stats.put("latencyMs", latency);
+        return stats;
+    }
+
+    static void write(Map<String, Object> report, Path path) throws IOException {
+        JSON.writeValue(path.toFile(), report);
+    }
+
+    static void print(Map<String, Object> report, PrintStream out) {
+        JsonNode node = JSON.valueToTree(report);
+        out.printf("%nсценарий %s, %s потоков%s, замер %.1f с%n", node.path("scenario").asText(),
+                node.path("threads").asText(), node.path("virtualThreads").asBoolean() ? " (виртуальные)" : "",
+                node.path("durationSeconds").asDouble());
+        out.printf("%-30s %9s %9s %7s %7s %7s %9s %9s %9s %9s%n",
+                "маршрут", "запросов", "rps", "2xx", "409", "4xx", "5xx/сеть", "p50 мс", "p99 мс", "max мс");
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.path("routes").fields(); it.hasNext(); ) {
+            var route = it.next();
+            row(out, route.getKey(), route.getValue());
+        }
+        row(out, "ВСЕГО", node.path("total"));
+    }
+
+    private static void row(PrintStream out, String name, JsonNode s) {
+        JsonNode l = s.path("latencyMs");
+        out.printf("%-30s %9d %9.1f %7d %7d %7d %9d %9.2f %9.2f %9.2f%n", name,
+                s.path("count").asLong(), s.path("throughput").asDouble(), s.path("ok").asLong(),
+                s.path("conflicts").asLong(), s.path("clientErrors").asLong(),
+                s.path("serverErrors").asLong() + s.path("failures").asLong(),
+                l.path("p50").asDouble(), l.path("p99").asDouble(), l.path("max").asDouble());
+    }
+
+    /**
+     * Сравнение двух отчётов: rps, p50 и p99 по каждому маршруту и изменение в процентах.
+     */
+    static void compare(Path basePath, Path headPath, PrintStream out) throws IOException {
+        JsonNode base = JSON.readTree(basePath.toFile());
+        JsonNode head = JSON.readTree(headPath.toFile());
+        out.printf("база: %s (%s), сравнивается: %s (%s)%n", basePath, base.path("scenario").asText(),
+                headPath, head.path("scenario").asText());
+        out.printf("%-30s %21s %21s %21s%n", "маршрут", "rps", "p50 мс", "p99 мс");
+
+        TreeSet<String> names = new TreeSet<>();
+        base.path("routes").fieldNames().forEachRemaining(names::add);
+        head.path("routes").fieldNames().forEachRemaining(names::add);
+        for (String name : names) {
+            diff(out, name, base.path("routes").path(name), head.path("routes").path(name));
+        }
+        diff(out, "ВСЕГО", base.path("total"), head.path("total"));
+    }
+
+    private static void diff(PrintStream out, String name, JsonNode base, JsonNode head) {
+        out.printf("%-30s %s %s %s%n", name,
+                cell(base.path("throughput"), head.path("throughput")),
+                cell(base.path("latencyMs").path("p50"), head.path("latencyMs").path("p50")),
+                cell(base.path("latencyMs").path("p99"), head.path("latencyMs").path("p99")));
+    }
+
+    private static String cell(JsonNode base, JsonNode head) {
+        if (base.isMissingNode() || head.isMissingNode()) {
+            return String.format("%21s", base.isMissingNode() ? "нет в базе" : "нет в новом");
+        }
+        double b = base.asDouble();
+        double h = head.asDouble();
+        String delta = b == 0 ? "" : String.format("%+.0f%%", (h - b) * 100 / b);
+        return String.format("%8.2f→%-7.2f %5s", b, h, delta);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,292 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Сценарии нагрузки. Один шаг — одно действие пользователя, обычно один HTTP-вызов.
+ */
+enum Scenario {
+
+    /**
+     * Смесь по всем маршрутам UserController, ItemController, BookingController и ItemRequestController,
+     * чтение преобладает.
+     */
+    MIXED {
+        private final Mix mix = new Mix()
+                .add(14, Scenario::itemCard)
+                .add(8, Scenario::ownerItems)
+                .add(10, Scenario::search)
+                .add(5, Scenario::availability)
+                .add(3, Scenario::createItem)
+                .add(1, Scenario::createItemBatch)
+                .add(3, Scenario::updateItem)
+                .add(1, Scenario::deleteItem)
+                .add(2, Scenario::comment)
+                .add(3, w -> w.client.get("GET /items/{id}/comments",
+                        "/items/" + w.anyItem().id() + "/comments?size=20", null))
+                .add(8, w -> createBooking(w, w.anyItem(), w.randomStart(365)))
+                .add(1, Scenario::createBookingBatch)
+                .add(4, Scenario::approveOwn)
+                .add(5, Scenario::bookingById)
+                .add(8, w -> bookings(w, "/bookings", "GET /bookings"))
+                .add(6, w -> bookings(w, "/bookings/owner", "GET /bookings/owner"))
+                .add(4, w -> w.client.get("GET /users/{id}", "/users/" + w.anyUser(), null))
+                .add(1, w -> w.client.get("GET /users", "/users", null))
+                .add(2, Scenario::createUser)
+                .add(2, w -> w.client.patch("PATCH /users/{id}", "/users/" + w.anyUser(), null,
+                        Map.of("name", w.uniqueLogin())))
+                .add(1, Scenario::deleteUser)
+                .add(2, w -> w.client.post("POST /requests", "/requests", w.anyUser(),
+                        Map.of("description", "Нужна " + w.pick(Dataset.WORDS))))
+                .add(2, w -> w.client.get("GET /requests", "/requests", w.anyUser()))
+                .add(1, w -> w.client.get("GET /requests/all", "/requests/all?size=20", w.anyUser()))
+                .add(1, Scenario::requestById);
+
+        @Override
+        void step(Worker w) {
+            mix.next(w);
+        }
+    },
+
+    /**
+     * Только маршруты /bookings и /items, чтение и запись вперемешку: сравнение режимов потоков приложения
+     * (SHAREIT_VIRTUAL_THREADS), см. thread-modes.sh.
+     */
+    BOOKINGS_ITEMS {
+        private final Mix mix = new Mix()
+                .add(18, Scenario::itemCard)
+                .add(8, Scenario::ownerItems)
+                .add(10, Scenario::search)
+                .add(5, Scenario::availability)
+                .add(3, Scenario::createItem)
+                .add(2, Scenario::updateItem)
+                .add(2, Scenario::comment)
+                .add(3, w -> w.client.get("GET /items/{id}/comments",
+                        "/items/" + w.anyItem().id() + "/comments?size=20", null))
+                .add(12, w -> createBooking(w, w.anyItem(), w.randomStart(365)))
+                .add(6, Scenario::approveOwn)
+                .add(7, Scenario::bookingById)
+                .add(12, w -> bookings(w, "/bookings", "GET /bookings"))
+                .add(12, w -> bookings(w, "/bookings/owner", "GET /bookings/owner"));
+
+        @Override
+        void step(Worker w) {
+            mix.next(w);
+        }
+    },
+
+    /**
+     * Много бронирующих на одну популярную вещь: пересекающиеся окна в ближайший месяц,
+     * владелец одобряет, остальные смотрят карточку и свободные слоты.
+     */
+    HOT_ITEM {
+        private final Mix mix = new Mix()
+                .add(70, w -> createBooking(w, w.data.hot(), w.randomStart(30)))
+                .add(10, Scenario::approveOwn)
+                .add(15, w -> w.client.get("GET /items/{id}/availability", "/items/" + w.data.hot().id()
+                        + "/availability?from=" + w.data.epoch + "&to=" + w.data.epoch.plusDays(30), null))
+                .add(5, w -> w.client.get("GET /items/{id}", "/items/" + w.data.hot().id(), w.anyUser()));
+
+        @Override
+        void step(Worker w) {
+            mix.next(w);
+        }
+    },
+
+    /**
+     * Гонка одобрений: пачки по {@value #RACE_GROUP} броней делят одно окно популярной вещи,
+     * и все потоки одобряют брони из общей очереди. Выиграть может одна бронь окна, остальные — 409/400.
+     */
+    APPROVE_RACE {
+        @Override
+        void step(Worker w) {
+            Dataset.Pending pending = w.random.nextBoolean() ? w.data.pending.pollFirst() : null;
+            if (pending != null) {
+                w.client.patch("PATCH /bookings/{id}", "/bookings/" + pending.booking() + "?approved=true",
+                        pending.owner(), null);
+                return;
+            }
+            Dataset.Item hot = w.data.hot();
+            LocalDateTime start = w.data.epoch.plusHours(w.data.sequence.getAndIncrement() / RACE_GROUP * 2);
+            var response = w.client.post("POST /bookings", "/bookings", w.bookerFor(hot),
+                    Dataset.booking(hot.id(), start, start.plusHours(1)));
+            if (response.ok()) w.data.pending.addLast(new Dataset.Pending(response.id(), hot.owner()));
+        }
+    },
+
+    /**
+     * Только чтение и только маршруты, которые есть и у сервлетного приложения, и у reactive-модуля:
+     * один и тот же прогон сравнивает оба стека (--setup-url на сервлетный, --url на проверяемый).
+     */
+    READS {
+        private final Mix mix = new Mix()
+                .add(40, Scenario::itemCard)
+                .add(30, w -> bookings(w, "/bookings", "GET /bookings"))
+                .add(30, w -> bookings(w, "/bookings/owner", "GET /bookings/owner"));
+
+        @Override
+        void step(Worker w) {
+            mix.next(w);
+        }
+    };
+
+    static final int RACE_GROUP = 8;
+
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    abstract void step(Worker w);
+
+    static Scenario of(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+
+    String label() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    private static void itemCard(Worker w) {
+        w.client.get("GET /items/{id}", "/items/" + w.anyItem().id(), w.anyUser());
+    }
+
+    private static void ownerItems(Worker w) {
+        w.client.get("GET /items", "/items?size=20", w.anyItem().owner());
+    }
+
+    private static void search(Worker w) {
+        String path = "/items/search?text=" + w.pick(Dataset.WORDS);
+        if (w.random.nextInt(3) == 0) {
+            LocalDateTime start = w.randomStart(365);
+            path += "&start=" + start + "&end=" + start.plusDays(3);
+        }
+        w.client.get("GET /items/search", path, w.anyUser());
+    }
+
+    private static void availability(Worker w) {
+        LocalDateTime from = w.randomStart(300);
+        w.client.get("GET /items/{id}/availability",
+                "/items/" + w.anyItem().id() + "/availability?from=" + from + "&to=" + from.plusDays(60), null);
+    }
+
+    private static void createItem(Worker w) {
+        long owner = w.anyUser();
+        var response = w.client.post("POST /items", "/items", owner, w.data.itemBody(w.random, w.random.nextInt(10) > 0));
+        if (response.ok()) w.createdItems.addLast(new Dataset.Item(response.id(), owner));
+    }
+
+    private static void createItemBatch(Worker w) {
+        List<Map<String, Object>> body = new ArrayList<>();
+        for (int i = 0; i < 5; i++) body.add(w.data.itemBody(w.random, true));
+        w.client.post("POST /items/batch", "/items/batch", w.anyUser(), body);
+    }
+
+    private static void updateItem(Worker w) {
+        Dataset.Item item = w.anyItem();
+        w.client.patch("PATCH /items/{id}", "/items/" + item.id(), item.owner(),
+                Map.of("description", w.pick(Dataset.WORDS) + " после обновления, прогон " + w.data.runId));
+    }
+
+    private static void deleteItem(Worker w) {
+        Dataset.Item item = w.createdItems.pollFirst();
+        if (item == null) {
+            createItem(w);
+            return;
+        }
+        w.client.delete("DELETE /items/{id}", "/items/" + item.id(), item.owner());
+    }
+
+    private static void comment(Worker w) {
+        if (w.data.commenters.isEmpty()) return;
+        Dataset.Pair pair = w.data.commenters.get(w.random.nextInt(w.data.commenters.size()));
+        w.client.post("POST /items/{id}/comment", "/items/" + pair.item() + "/comment", pair.user(),
+                Map.of("text", "Всё отлично, " + w.pick(Dataset.WORDS) + " как новая"));
+    }
+
+    private static void createBooking(Worker w, Dataset.Item item, LocalDateTime start) {
+        var response = w.client.post("POST /bookings", "/bookings", w.bookerFor(item),
+                Dataset.booking(item.id(), start, start.plusHours(1 + w.random.nextInt(72))));
+        if (response.ok()) {
+            w.waiting.addLast(new Dataset.Pending(response.id(), item.owner()));
+            // не копим бесконечно, если одобрения отстают
+            if (w.waiting.size() > 1000) w.waiting.pollFirst();
+        }
+    }
+
+    private static void createBookingBatch(Worker w) {
+        Dataset.Item item = w.anyItem();
+        List<Map<String, Object>> body = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime start = w.randomStart(365);
+            body.add(Dataset.booking(item.id(), start, start.plusHours(1 + w.random.nextInt(72))));
+        }
+        w.client.post("POST /bookings/batch", "/bookings/batch", w.bookerFor(item), body);
+    }
+
+    private static void approveOwn(Worker w) {
+        Dataset.Pending pending = w.waiting.pollFirst();
+        if (pending == null) return;
+        w.client.patch("PATCH /bookings/{id}", "/bookings/" + pending.booking() + "?approved=" + w.random.nextBoolean(),
+                pending.owner(), null);
+    }
+
+    private static void bookingById(Worker w) {
+        if (w.data.bookings.isEmpty()) return;
+        long id = w.data.bookings.get(w.random.nextInt(w.data.bookings.size()));
+        // чужой запрос даст 400: так и задумано, в отчёте это clientErrors
+        w.client.get("GET /bookings/{id}", "/bookings/" + id, w.anyUser());
+    }
+
+    private static void bookings(Worker w, String path, String route) {
+        w.client.get(route, path + "?state=" + w.pick(STATES) + "&size=20", w.anyUser());
+    }
+
+    private static void createUser(Worker w) {
+        String login = w.uniqueLogin();
+        var response = w.client.post("POST /users", "/users", null, Map.of("name", login, "email", login + "@load.test"));
+        if (response.ok()) w.createdUsers.addLast(response.id());
+    }
+
+    private static void deleteUser(Worker w) {
+        Long user = w.createdUsers.pollFirst();
+        if (user == null) {
+            createUser(w);
+            return;
+        }
+        w.client.delete("DELETE /users/{id}", "/users/" + user, null);
+    }
+
+    private static void requestById(Worker w) {
+        if (w.data.requests.isEmpty()) return;
+        long id = w.data.requests.get(w.random.nextInt(w.data.requests.size()));
+        w.client.get("GET /requests/{id}", "/requests/" + id, w.anyUser());
+    }
+
+    /**
+     * Взвешенный выбор шага.
+     */
+    private static final class Mix {
+        private final List<Consumer<Worker>> steps = new ArrayList<>();
+        private final List<Integer> bounds = new ArrayList<>();
+        private int total;
+
+        Mix add(int weight, Consumer<Worker> step) {
+            total += weight;
+            steps.add(step);
+            bounds.add(total);
+            return this;
+        }
+
+        void next(Worker w) {
+            int roll = w.random.nextInt(total);
+            for (int i = 0; i < bounds.size(); i++) {
+                if (roll < bounds.get(i)) {
+                    steps.get(i).accept(w);
+                    return;
+                }
+            }
+        }
+    }
+}
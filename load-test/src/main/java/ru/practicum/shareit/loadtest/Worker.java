@@ -0,0 +1,58 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Состояние одного рабочего потока: свой генератор и то, что поток сам создал
+ * (ожидающие брони для одобрения, пользователи и вещи для удаления).
+ */
+final class Worker {
+
+    final Client client;
+    final Dataset data;
+    final Random random;
+    final Deque<Dataset.Pending> waiting = new ArrayDeque<>();
+    final Deque<Long> createdUsers = new ArrayDeque<>();
+    final Deque<Dataset.Item> createdItems = new ArrayDeque<>();
+    private int counter;
+    private final int index;
+
+    Worker(Client client, Dataset data, long seed, int index) {
+        this.client = client;
+        this.data = data;
+        this.random = new Random(seed + index);
+        this.index = index;
+    }
+
+    long anyUser() {
+        return data.users.get(random.nextInt(data.users.size()));
+    }
+
+    Dataset.Item anyItem() {
+        return data.items.get(random.nextInt(data.items.size()));
+    }
+
+    // бронирующий, который не владеет вещью
+    long bookerFor(Dataset.Item item) {
+        long user;
+        do {
+            user = anyUser();
+        } while (user == item.owner());
+        return user;
+    }
+
+    <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    LocalDateTime randomStart(int days) {
+        return data.epoch.plusDays(random.nextInt(days)).plusHours(random.nextInt(24));
+    }
+
+    String uniqueLogin() {
+        return "lt-" + data.runId + "-w" + index + "-" + counter++;
+    }
+}
@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Пропускная способность и p99 приложения на платформенных и виртуальных потоках под смешанной нагрузкой
+# /bookings и /items. Приложение запускается дважды на одной БД: SHAREIT_VIRTUAL_THREADS=false, затем true.
+# Нагрузка — закрытый цикл с числом клиентов больше пула Tomcat (200), иначе режимы не различить.
+#
+#   mvn -B -q package -DskipTests && (cd load-test && mvn -B -q package)
+#   load-test/thread-modes.sh [параметры load-test.jar ...]
+#
+# Отчёты: load-report-platform.{json,hlog}, load-report-virtual.{json,hlog}; в конце — compare.
+set -euo pipefail
+
+root=$(cd "$(dirname "$0")/.." && pwd)
+app=${APP_JAR:-$root/target/shareit-0.0.1-SNAPSHOT-exec.jar}
+load=${LOAD_JAR:-$root/load-test/target/load-test.jar}
+port=${PORT:-8080}
+out=${OUT:-load-report}
+
+pid=
+stop() {
+    if [[ -n $pid ]]; then
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        pid=
+    fi
+}
+trap stop EXIT
+
+for mode in platform virtual; do
+    virtual=false
+    [[ $mode == virtual ]] && virtual=true
+    echo "== $mode"
+    SHAREIT_VIRTUAL_THREADS=$virtual java -jar "$app" --server.port="$port" > "$out-$mode.app.log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$port/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "приложение не запустилось, см. $out-$mode.app.log"; exit 1; }
+        sleep 1
+    done
+    java -jar "$load" --url="http://localhost:$port" --scenario=bookings-items --threads=400 --virtual=true \
+        --warmup=15s --duration=60s --out="$out-$mode" "$@"
+    stop
+done
+
+java -jar "$load" compare "$out-platform.json" "$out-virtual.json"
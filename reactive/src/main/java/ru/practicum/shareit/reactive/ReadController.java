@@ -0,0 +1,83 @@
+package ru.practicum.shareit.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.Role;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Те же пути и ответы, что у BookingController.getBookingsUser/getBookingsOwner и ItemController.getById.
+ * Списки отдаются по мере чтения строк; с {@code Accept: application/x-ndjson} — построчно.
+ */
+@RestController
+@RequiredArgsConstructor
+public class ReadController {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final ReadRepository readRepository;
+    private final BookingMapper bookingMapper;
+    private final ItemMapper itemMapper;
+    private final CommentMapper commentMapper;
+
+    @Value("${shareit.items.comments.preview-size:10}")
+    private int previewSize;
+
+    @GetMapping(value = "/bookings", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BookingDto> getBookingsUser(@RequestHeader(USER_HEADER) Long userId,
+                                            @RequestParam(defaultValue = "ALL") BookingState state,
+                                            @RequestParam(defaultValue = "0") int from,
+                                            @RequestParam(defaultValue = "20") int size) {
+        return bookings(userId, Role.BOOKER, state, from, size);
+    }
+
+    @GetMapping(value = "/bookings/owner", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BookingDto> getBookingsOwner(@RequestHeader(USER_HEADER) Long ownerId,
+                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                             @RequestParam(defaultValue = "0") int from,
+                                             @RequestParam(defaultValue = "20") int size) {
+        return bookings(ownerId, Role.OWNER, state, from, size);
+    }
+
+    @GetMapping("/items/{itemId}")
+    public Mono<ItemDto> getById(@RequestHeader(USER_HEADER) Long userId,
+                                 @PathVariable Long itemId) {
+        return readRepository.item(itemId)
+                .switchIfEmpty(Mono.error(new GlobalExceptionHandler.NotFoundException("item not found")))
+                .zipWith(readRepository.comments(itemId, previewSize).collectList(), (item, comments) -> {
+                    ItemDto dto = itemMapper.toItemDto(item);
+                    dto.setComments(commentMapper.toDto(comments.reversed()));
+                    if (dto.getCommentCount() == null) dto.setCommentCount((long) comments.size());
+                    return dto;
+                });
+    }
+
+    private Flux<BookingDto> bookings(Long userId, Role role, BookingState state, int from, int size) {
+        if (from < 0 || size <= 0) {
+            return Flux.error(new IllegalArgumentException("from must be >= 0 and size > 0"));
+        }
+        Mono<Void> phases = switch (state) {
+            case CURRENT, PAST, FUTURE -> readRepository.catchUpPhases(LocalDateTime.now());
+            default -> Mono.empty();
+        };
+        return readRepository.userExists(userId)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : Mono.error(new GlobalExceptionHandler.NotFoundException("user not found")))
+                .then(phases)
+                .thenMany(readRepository.bookings(role, userId, state, from, size))
+                .map(bookingMapper::toDto);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
+
+import java.util.Map;
+
+/**
+ * Тело ошибок как у GlobalExceptionHandler основного приложения.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ReadExceptionHandler {
+
+    @ExceptionHandler({IllegalArgumentException.class, ServerWebInputException.class})
+    public ResponseEntity<Map<String, String>> badRequest(Exception ex) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+    }
+
+    @ExceptionHandler(GlobalExceptionHandler.NotFoundException.class)
+    public ResponseEntity<Map<String, String>> notFound(Exception ex) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", ex.getMessage()));
+    }
+}
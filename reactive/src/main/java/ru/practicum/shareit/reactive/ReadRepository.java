@@ -0,0 +1,143 @@
+package ru.practicum.shareit.reactive;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.enums.BookingPhase;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.enums.Role;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.repository.ItemCardRow;
+import ru.practicum.shareit.user.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запросы те же, что у JPA-репозиториев основного приложения; строки собираются в его сущности,
+ * чтобы переиспользовать MapStruct-мапперы.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReadRepository {
+
+    private static final String BOOKINGS = """
+            select b.id_booking, b.start_time, b.end_time, b.status, b.id_booker, i.id_item, i.name
+            from bookings b
+            join items i on i.id_item = b.id_item
+            """;
+
+    private final DatabaseClient db;
+
+    @Value("${shareit.reactive.fetch-size:100}")
+    private int fetchSize;
+
+    public Mono<Boolean> userExists(long userId) {
+        return db.sql("select exists(select 1 from users where id_user = :id)")
+                .bind("id", userId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Доводит фазы до {@code now}, как BookingPhaseScheduler.catchUp в основном приложении.
+     */
+    public Mono<Void> catchUpPhases(LocalDateTime now) {
+        return db.sql("update bookings set phase = 'PAST' where phase <> 'PAST' and end_time <= :now")
+                .bind("now", now)
+                .then()
+                .then(db.sql("update bookings set phase = 'CURRENT' where phase = 'FUTURE' and start_time <= :now")
+                        .bind("now", now)
+                        .then());
+    }
+
+    public Flux<Booking> bookings(Role role, long userId, BookingState state, int from, int size) {
+        var sql = new StringBuilder(BOOKINGS)
+                .append(role == Role.BOOKER ? "where b.id_booker = :userId" : "where i.owner_id = :userId");
+        switch (state) {
+            case CURRENT, PAST, FUTURE -> sql.append(" and b.phase = :phase");
+            case WAITING, REJECTED -> sql.append(" and b.status = :status");
+            default -> {
+            }
+        }
+        sql.append(" order by b.start_time desc, b.id_booking desc limit :size offset :from");
+
+        var spec = db.sql(sql.toString())
+                .filter(s -> s.fetchSize(fetchSize))
+                .bind("userId", userId)
+                .bind("size", size)
+                .bind("from", from);
+        spec = switch (state) {
+            case CURRENT, PAST, FUTURE -> spec.bind("phase", BookingPhase.valueOf(state.name()).name());
+            case WAITING, REJECTED -> spec.bind("status", state.name());
+            default -> spec;
+        };
+        return spec.map(ReadRepository::toBooking).all();
+    }
+
+    public Mono<ItemCardRow> item(long itemId) {
+        return db.sql("""
+                        select i.id_item, i.name, i.description, i.available, i.owner_id, i.item_request_id,
+                               s.comment_count
+                        from items i
+                        left join item_summary s on s.id_item = i.id_item
+                        where i.id_item = :id
+                        """)
+                .bind("id", itemId)
+                .map(row -> new ItemCardRow(row.get("id_item", Long.class), row.get("name", String.class),
+                        row.get("description", String.class), row.get("available", Boolean.class),
+                        row.get("owner_id", Long.class), row.get("item_request_id", Long.class),
+                        row.get("comment_count", Long.class)))
+                .one();
+    }
+
+    /**
+     * Последние {@code limit} отзывов вещи, новые сначала.
+     */
+    public Flux<Comment> comments(long itemId, int limit) {
+        return db.sql("""
+                        select c.id_comment, c.text, c.created, u.name
+                        from comments c
+                        join users u on u.id_user = c.author_id
+                        where c.id_item = :id
+                        order by c.created desc, c.id_comment desc
+                        limit :limit
+                        """)
+                .bind("id", itemId)
+                .bind("limit", limit)
+                .map(row -> {
+                    var author = new User();
+                    author.setName(row.get("name", String.class));
+                    var comment = new Comment();
+                    comment.setCommentId(row.get("id_comment", Long.class));
+                    comment.setAuthor(author);
+                    comment.setText(row.get("text", String.class));
+                    comment.setCreated(row.get("created", LocalDateTime.class));
+                    return comment;
+                })
+                .all();
+    }
+
+    private static Booking toBooking(Readable row) {
+        var item = new Item();
+        item.setId(row.get("id_item", Long.class));
+        item.setName(row.get("name", String.class));
+        var booker = new User();
+        booker.setId(row.get("id_booker", Long.class));
+
+        var booking = new Booking();
+        booking.setId(row.get("id_booking", Long.class));
+        booking.setStart(row.get("start_time", LocalDateTime.class));
+        booking.setEnd(row.get("end_time", LocalDateTime.class));
+        booking.setStatus(BookingStatus.valueOf(row.get("status", String.class)));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        return booking;
+    }
+}
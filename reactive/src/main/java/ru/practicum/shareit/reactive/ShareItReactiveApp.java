@@ -0,0 +1,21 @@
+package ru.practicum.shareit.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.item.comment.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+
+/**
+ * Неблокирующее API чтения: списки бронирований и карточка вещи поверх R2DBC.
+ * Пишущие эндпоинты остаются в основном приложении; схема и фазы бронирований — его же.
+ */
+@SpringBootApplication
+@Import({BookingMapperImpl.class, ItemMapperImpl.class, CommentMapperImpl.class})
+public class ShareItReactiveApp {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ShareItReactiveApp.class, args);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Итог импорта. {@code resumeFrom} — число уже зафиксированных записей: повторный запрос
+ * с {@code resumeFrom} продолжит с первой незафиксированной. {@code rejected} — записи,
+ * не прошедшие проверку ссылок или конфликтующие с существующими.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportResultDto {
+    private final String table;
+    private final long imported;
+    private final long rejected;
+    private final long resumeFrom;
+    private final String error;
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.admin;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin")
+@ConditionalOnProperty(name = "shareit.admin.enabled", havingValue = "true")
+public class TransferController {
+
+    private final TransferService transferService;
+
+    @GetMapping("/export/{table}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String table,
+                                                        @RequestParam(defaultValue = "csv") String format) {
+        TransferTable t = TransferTable.of(table);
+        TransferFormat f = TransferFormat.of(format);
+        StreamingResponseBody body = out -> {
+            try {
+                transferService.export(t, f, out);
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        };
+        MediaType type = f == TransferFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok().contentType(type).body(body);
+    }
+
+    //тело не должно быть form-urlencoded, иначе контейнер разберёт его как параметры
+    @PostMapping(value = "/import/{table}",
+            consumes = {"text/csv", "text/plain", MediaType.APPLICATION_NDJSON_VALUE,
+                    MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportResultDto> importTable(@PathVariable String table,
+                                                       @RequestParam(defaultValue = "csv") String format,
+                                                       @RequestParam(defaultValue = "true") boolean header,
+                                                       @RequestParam(defaultValue = "0") @PositiveOrZero long resumeFrom,
+                                                       @RequestParam(defaultValue = "5000") @Positive int batchSize,
+                                                       HttpServletRequest request) throws IOException {
+        var body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        ImportResultDto result = transferService.importFrom(
+                TransferTable.of(table), TransferFormat.of(format), body, header, resumeFrom, batchSize);
+        HttpStatus status = result.getError() == null ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(result);
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.admin;
+
+import java.util.Locale;
+
+/**
+ * CSV передаётся COPY как есть. NDJSON — одна JSON-строка на запись; чтобы COPY не экранировал JSON,
+ * используется формат csv с кавычкой и разделителем из управляющих символов, которых нет в JSON-тексте.
+ */
+public enum TransferFormat {
+    CSV("FORMAT csv"),
+    NDJSON("FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02'");
+
+    private final String copyOptions;
+
+    TransferFormat(String copyOptions) {
+        this.copyOptions = copyOptions;
+    }
+
+    public String copyOptions() {
+        return copyOptions;
+    }
+
+    public static TransferFormat of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown format: " + name);
+        }
+    }
+}
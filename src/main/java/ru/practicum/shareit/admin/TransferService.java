@@ -0,0 +1,244 @@
+package ru.practicum.shareit.admin;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.booking.availability.CompletedStays;
+import ru.practicum.shareit.config.MetricsConfig;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.user.identity.UserIdentity;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт и экспорт таблиц через протокол COPY.
+ * Экспорт пишет вывод COPY прямо в ответ. Импорт читает тело запроса пакетами по {@code batchSize} записей:
+ * пакет копируется во временную таблицу, проверяется на ссылочную целостность и переносится в целевую таблицу
+ * в отдельной транзакции, поэтому память не зависит от размера файла, а после сбоя импорт продолжается
+ * с {@code resumeFrom}.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_METRIC, histogram = true)
+@RequiredArgsConstructor
+public class TransferService {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ItemSummaryRepository summaryRepository;
+    private final ItemSearch itemSearch;
+    private final ItemCache itemCache;
+    private final BookingIntervals bookingIntervals;
+    private final UserIdentity userIdentity;
+    private final CompletedStays completedStays;
+
+    public void export(TransferTable table, TransferFormat format, OutputStream out) throws SQLException, IOException {
+        String select = "select " + table.columnList() + " from " + table.getTable()
+                + " order by " + table.getIdColumn();
+        String sql = switch (format) {
+            case CSV -> "COPY (" + select + ") TO STDOUT WITH (FORMAT csv, HEADER)";
+            case NDJSON -> "COPY (select row_to_json(t) from (" + select + ") t) TO STDOUT WITH ("
+                    + format.copyOptions() + ")";
+        };
+        try (Connection connection = dataSource.getConnection()) {
+            long rows = copyApi(connection).copyOut(sql, out);
+            log.info("export: table={}, format={}, rows={}", table, format, rows);
+        }
+    }
+
+    public ImportResultDto importFrom(TransferTable table, TransferFormat format, Reader body,
+                                      boolean header, long resumeFrom, int batchSize) {
+        var reader = new BufferedReader(body);
+        var tx = new TransactionTemplate(transactionManager);
+        long committed = resumeFrom;
+        long imported = 0;
+        long rejected = 0;
+        try {
+            if (format == TransferFormat.CSV && header) checkHeader(table, nextRecord(reader, format));
+            for (long i = 0; i < resumeFrom && nextRecord(reader, format) != null; i++) {
+                // пропускаем записи, зафиксированные прошлым запуском
+            }
+
+            List<String> batch = new ArrayList<>(batchSize);
+            while (true) {
+                batch.clear();
+                String record;
+                while (batch.size() < batchSize && (record = nextRecord(reader, format)) != null) {
+                    batch.add(record);
+                }
+                if (batch.isEmpty()) break;
+
+                Integer inserted = tx.execute(status -> importBatch(table, format, batch));
+                int count = inserted == null ? 0 : inserted;
+                imported += count;
+                rejected += batch.size() - count;
+                committed += batch.size();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("import: table={} failed after committed={}: {}", table, committed, e.getMessage());
+            // ошибка в данных — 400; повтор с resumeFrom продолжит с пакета, на котором импорт остановился
+            if (e instanceof IllegalArgumentException || badInput(e)) {
+                throw new IllegalArgumentException("import stopped, resumeFrom=" + committed + ": " + e.getMessage(), e);
+            }
+            return new ImportResultDto(table.getTable(), imported, rejected, committed, e.getMessage());
+        } finally {
+            afterImport(table);
+        }
+        log.info("import: table={}, imported={}, rejected={}", table, imported, rejected);
+        return new ImportResultDto(table.getTable(), imported, rejected, committed, null);
+    }
+
+    private int importBatch(TransferTable table, TransferFormat format, List<String> records) {
+        String stage = "import_" + table.getTable();
+        String columns = table.columnList();
+        //без NOT NULL: строки без id получают его из последовательности при переносе
+        jdbcTemplate.execute("create temp table if not exists " + stage + " on commit delete rows as select "
+                + columns + " from " + table.getTable() + " with no data");
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        var data = new StringReader(String.join("\n", records) + "\n");
+        try {
+            if (format == TransferFormat.CSV) {
+                copyApi(connection).copyIn("COPY " + stage + " (" + columns + ") FROM STDIN WITH ("
+                        + format.copyOptions() + ")", data);
+            } else {
+                jdbcTemplate.execute("create temp table if not exists import_json (doc jsonb) on commit delete rows");
+                copyApi(connection).copyIn("COPY import_json (doc) FROM STDIN WITH ("
+                        + format.copyOptions() + ")", data);
+                jdbcTemplate.update("insert into " + stage + " (" + columns + ") select " + columns
+                        + " from import_json j, jsonb_populate_record(null::" + stage + ", j.doc)");
+                jdbcTemplate.execute("truncate import_json");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String select = table.getColumns().stream()
+                .map(c -> c.equals(table.getIdColumn())
+                        ? "coalesce(s." + c + ", nextval('" + table.getSequence() + "'))"
+                        : "s." + c)
+                .collect(Collectors.joining(", "));
+        List<Long> affected = jdbcTemplate.queryForList(
+                "insert into " + table.getTable() + " (" + columns + ") select " + select
+                        + " from " + stage + " s where " + table.getReferences()
+                        + " on conflict do nothing returning " + table.getAffected(), Long.class);
+        jdbcTemplate.execute("truncate " + stage);
+
+        if (!affected.isEmpty()) {
+            var ids = affected.stream().distinct().toList();
+            switch (table) {
+                case ITEMS -> summaryRepository.createForAll(ids);
+                case BOOKINGS -> summaryRepository.refreshItems(ids, LocalDateTime.now());
+                case COMMENTS -> summaryRepository.recountComments(ids);
+                default -> {
+                }
+            }
+        }
+        return affected.size();
+    }
+
+    private void afterImport(TransferTable table) {
+        String seq = table.getSequence();
+        jdbcTemplate.queryForObject("select setval('" + seq + "', greatest((select last_value from " + seq
+                + "), (select coalesce(max(" + table.getIdColumn() + "), 0) from " + table.getTable() + ")))",
+                Long.class);
+        switch (table) {
+            case ITEMS -> {
+                itemSearch.rebuild();
+                itemCache.clear();
+            }
+            case BOOKINGS -> {
+                bookingIntervals.reload();
+                completedStays.reload();
+            }
+            case COMMENTS -> itemCache.clear();
+            case USERS -> userIdentity.clear();
+            default -> {
+            }
+        }
+    }
+
+    private static void checkHeader(TransferTable table, String header) {
+        if (header == null) return;
+        List<String> names = Arrays.stream(header.split(",", -1))
+                .map(name -> name.trim().replace("\"", "").toLowerCase(Locale.ROOT))
+                .toList();
+        for (String name : names) {
+            if (!table.getColumns().contains(name)) throw new IllegalArgumentException("unknown column: " + name);
+        }
+        if (!names.equals(table.getColumns())) {
+            throw new IllegalArgumentException("header must be: " + table.columnList());
+        }
+    }
+
+    //класс 22 — данные не разобрались: неверный JSON, формат CSV, тип или длина значения
+    private static boolean badInput(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("22")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Следующая запись или null в конце потока. Запись CSV может занимать несколько строк,
+     * если перевод строки стоит внутри кавычек.
+     */
+    private static String nextRecord(BufferedReader reader, TransferFormat format) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        if (line == null || format != TransferFormat.CSV) return line;
+
+        var record = new StringBuilder(line);
+        int quotes = countQuotes(line);
+        while (quotes % 2 != 0) {
+            String more = reader.readLine();
+            if (more == null) break;
+            record.append('\n').append(more);
+            quotes += countQuotes(more);
+        }
+        return record.toString();
+    }
+
+    private static int countQuotes(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '"') n++;
+        }
+        return n;
+    }
+
+    private static CopyManager copyApi(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.admin;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Таблицы, доступные для импорта и экспорта, и проверки ссылочной целостности для строк импорта.
+ * {@code affected} — столбец, по которому после вставки обновляются производные данные.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TransferTable {
+    USERS("users", "id_user", "users_seq",
+            List.of("id_user", "name", "email"),
+            "true",
+            "id_user"),
+    ITEMS("items", "id_item", "items_seq",
+            List.of("id_item", "name", "description", "available", "owner_id", "item_request_id"),
+            "exists (select 1 from users u where u.id_user = s.owner_id)",
+            "id_item"),
+    BOOKINGS("bookings", "id_booking", "bookings_seq",
+            List.of("id_booking", "start_time", "end_time", "id_item", "id_booker", "status"),
+            """
+                    exists (select 1 from items i where i.id_item = s.id_item)
+                    and exists (select 1 from users u where u.id_user = s.id_booker)""",
+            "id_item"),
+    COMMENTS("comments", "id_comment", "comments_seq",
+            List.of("id_comment", "id_item", "author_id", "text", "created"),
+            """
+                    exists (select 1 from items i where i.id_item = s.id_item)
+                    and exists (select 1 from users u where u.id_user = s.author_id)""",
+            "id_item");
+
+    private final String table;
+    private final String idColumn;
+    private final String sequence;
+    private final List<String> columns;
+    private final String references;
+    private final String affected;
+
+    public String columnList() {
+        return String.join(", ", columns);
+    }
+
+    public static TransferTable of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown table: " + name);
+        }
+    }
+}
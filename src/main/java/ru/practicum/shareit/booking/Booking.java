@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import ru.practicum.shareit.booking.enums.BookingPhase;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
@@ -19,7 +20,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id_booking")
     private Long id;
 
@@ -40,4 +42,12 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    //пишет только вставка и BookingPhaseScheduler, сохранение сущности фазу не перетирает
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private BookingPhase phase;
+
+    @Version
+    private Long version;
+
 }
@@ -4,12 +4,18 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.Role;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.sql.SqlBudget;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.user.identity.SharerUser;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.util.List;
 
@@ -21,10 +27,17 @@ public class BookingController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
     private final BookingService bookingService;
 
+    @SqlBudget(2)
     @PostMapping
-    public BookingDto createBooking(@RequestHeader(USER_HEADER) Long userId,
+    public BookingDto createBooking(@SharerUser Sharer booker,
                                     @Valid @RequestBody BookingCreateDto dto) {
-        return bookingService.create(userId, dto);
+        return bookingService.create(booker, dto);
+    }
+
+    @PostMapping("/batch")
+    public List<BatchResultDto> createBatch(@SharerUser Sharer booker,
+                                            @RequestBody List<BookingCreateDto> dtos) {
+        return bookingService.createBatch(booker, dtos);
     }
 
     @PatchMapping("/{bookingId}")
@@ -34,29 +47,48 @@ public class BookingController {
         return bookingService.approve(ownerId, bookingId, approved);
     }
 
+    @SqlBudget(1)
     @GetMapping("/{bookingId}")
     public BookingDto get(@RequestHeader(USER_HEADER) Long userId,
                           @PathVariable Long bookingId) {
         return bookingService.getStatusById(userId, bookingId);
     }
 
+    //пользователь, для фаз — доводка фаз (завершение и начало), страница
+    @SqlBudget(4)
     @GetMapping
-    public List<BookingDto> getBookingsUser(
-            @RequestHeader(USER_HEADER) Long userId,
+    public ResponseEntity<List<BookingDto>> getBookingsUser(
+            @SharerUser Sharer user,
             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "20") @Positive int size
+            @RequestParam(defaultValue = "20") @Positive int size,
+            @RequestParam(required = false) String after
     ) {
-        return bookingService.getBookings(userId, Role.BOOKER, state, from, size);
+        return listing(user, Role.BOOKER, state, from, size, after);
     }
 
+    //пользователь, для фаз — доводка фаз (завершение и начало), страница
+    @SqlBudget(4)
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsOwner(
-            @RequestHeader(USER_HEADER) Long ownerId,
+    public ResponseEntity<List<BookingDto>> getBookingsOwner(
+            @SharerUser Sharer owner,
             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-            @RequestParam(defaultValue = "20") @Positive int size
+            @RequestParam(defaultValue = "20") @Positive int size,
+            @RequestParam(required = false) String after
     ) {
-        return bookingService.getBookings(ownerId, Role.OWNER, state, from, size);
+        return listing(owner, Role.OWNER, state, from, size, after);
+    }
+
+    // режим курсора включается параметром after (пустое значение — первая страница)
+    private ResponseEntity<List<BookingDto>> listing(Sharer user, Role role, BookingState state,
+                                                     int from, int size, String after) {
+        if (after == null) {
+            return ResponseEntity.ok(bookingService.getBookings(user, role, state, from, size));
+        }
+        CursorPage<BookingDto> page = bookingService.getBookingsAfter(user, role, state, after, size);
+        var response = ResponseEntity.ok();
+        if (page.next() != null) response.header(CursorPage.NEXT_HEADER, page.next());
+        return response.body(page.items());
     }
 }
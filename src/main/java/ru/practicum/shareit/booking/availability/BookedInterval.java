@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+
+public record BookedInterval(Long bookingId, Long itemId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,367 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.notify.NotifyPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Подтверждённые бронирования по вещам: для каждой вещи интервалы упорядочены по началу.
+ * Подтверждённые интервалы одной вещи не пересекаются, поэтому проверка пересечения —
+ * один {@code lowerEntry}, O(log n).
+ * <p>
+ * В памяти держатся только интервалы, заканчивающиеся после {@code horizon}; запросы, начинающиеся
+ * раньше горизонта, и запросы до окончания загрузки уходят в БД.
+ * <p>
+ * Интервалы свои у каждого инстанса. С {@code shareit.bookings.intervals.notify=true} изменения рассылаются
+ * через {@code NOTIFY booking_intervals}, и остальные инстансы перечитывают интервалы этих вещей из БД,
+ * см. {@link BookingIntervalsListener}. Без рассылки пересечение подтверждённых броней всё равно
+ * не пропустит ограничение {@code bookings_no_overlap}, но свободные слоты и поиск на других инстансах устареют.
+ * <p>
+ * Интервал, занятый {@link #tryReserve}, до завершения транзакции подтверждения считается ожидающим:
+ * перечитывание из БД его ещё не видит и сохраняет поверх прочитанного, откат транзакции его освобождает.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervals {
+
+    static final String CHANNEL = "booking_intervals";
+    static final String ALL = "*";
+
+    private final BookingRepository bookingRepository;
+    private final NotifyPublisher notifyPublisher;
+
+    @Value("${shareit.bookings.intervals.notify:false}")
+    private boolean notify;
+
+    private final Map<Long, ItemIntervals> byItem = new ConcurrentHashMap<>();
+    //занятые tryReserve, транзакция ещё не завершена; ключ — id брони
+    private final Map<Long, BookedInterval> pending = new ConcurrentHashMap<>();
+    //reload — под write-блокировкой, чтобы не потерять подтверждение, пришедшее во время загрузки
+    private final ReentrantReadWriteLock loadLock = new ReentrantReadWriteLock();
+    private volatile LocalDateTime horizon;
+
+    public void reload() {
+        load();
+        publish(ALL);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loadLock.writeLock().lock();
+        try {
+            horizon = null;
+            byItem.clear();
+            LocalDateTime now = LocalDateTime.now();
+            var intervals = bookingRepository.findIntervalsEndingAfter(BookingStatus.APPROVED, now);
+            intervals.forEach(i -> itemIntervals(i.itemId()).add(i));
+            pending.values().stream()
+                    .filter(i -> i.end().isAfter(now))
+                    .forEach(i -> itemIntervals(i.itemId()).add(i));
+            horizon = now;
+            log.info("load: intervals={}, items={}", intervals.size(), byItem.size());
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Перезагрузка после коммита текущей транзакции — для каскадных удалений, которые индекс сам не видит.
+     */
+    public void reloadAfterCommit() {
+        publish(ALL);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            load();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                load();
+            }
+        });
+    }
+
+    /**
+     * Подтверждение брони вещи сохранено — остальным инстансам пора перечитать её интервалы.
+     */
+    public void changed(Long itemId) {
+        publish(String.valueOf(itemId));
+    }
+
+    /**
+     * Интервалы вещи, изменённые на другом инстансе, перечитываются из БД; ожидающие коммита остаются.
+     */
+    void reloadItem(Long itemId) {
+        loadLock.readLock().lock();
+        try {
+            LocalDateTime h = horizon;
+            if (h == null) return;
+            ItemIntervals intervals = itemIntervals(itemId);
+            intervals.lock.lock();
+            try {
+                intervals.starts.clear();
+                bookingRepository.findIntervalsByItemEndingAfter(itemId, BookingStatus.APPROVED, h)
+                        .forEach(intervals::add);
+                pending.values().stream()
+                        .filter(i -> i.itemId().equals(itemId) && i.end().isAfter(h))
+                        .forEach(intervals::add);
+            } finally {
+                intervals.lock.unlock();
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        loadLock.readLock().lock();
+        try {
+            LocalDateTime h = horizon;
+            if (h == null || start.isBefore(h)) return dbOverlaps(itemId, start, end);
+            ItemIntervals intervals = byItem.get(itemId);
+            if (intervals == null) return false;
+            intervals.lock.lock();
+            try {
+                return intervals.overlaps(start, end);
+            } finally {
+                intervals.lock.unlock();
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вещи из {@code itemIds}, занятые подтверждёнными бронированиями в [start, end).
+     */
+    public Set<Long> busyItems(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        loadLock.readLock().lock();
+        try {
+            LocalDateTime h = horizon;
+            if (h == null || start.isBefore(h)) {
+                return bookingRepository.findIntervalsOverlapping(itemIds, BookingStatus.APPROVED, start, end)
+                        .stream()
+                        .map(BookedInterval::itemId)
+                        .collect(Collectors.toSet());
+            }
+            Set<Long> busy = new HashSet<>();
+            for (Long itemId : itemIds) {
+                ItemIntervals intervals = byItem.get(itemId);
+                if (intervals == null) continue;
+                intervals.lock.lock();
+                try {
+                    if (intervals.overlaps(start, end)) busy.add(itemId);
+                } finally {
+                    intervals.lock.unlock();
+                }
+            }
+            return busy;
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Атомарно проверяет пересечение и занимает интервал. false — интервал уже занят.
+     * В транзакции интервал освобождается при её откате; вне транзакции, если сохранение брони
+     * не удалось, интервал нужно вернуть через {@link #release}.
+     */
+    public boolean tryReserve(BookedInterval interval) {
+        loadLock.readLock().lock();
+        try {
+            LocalDateTime h = horizon;
+            if (h == null) return !dbOverlaps(interval.itemId(), interval.start(), interval.end());
+
+            ItemIntervals intervals = itemIntervals(interval.itemId());
+            intervals.lock.lock();
+            try {
+                boolean busy = interval.start().isBefore(h)
+                        ? dbOverlaps(interval.itemId(), interval.start(), interval.end())
+                        : intervals.overlaps(interval.start(), interval.end());
+                if (busy) return false;
+                if (interval.end().isAfter(h)) {
+                    intervals.add(interval);
+                    untilCompletion(interval);
+                }
+                return true;
+            } finally {
+                intervals.lock.unlock();
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    public void release(BookedInterval interval) {
+        pending.remove(interval.bookingId(), interval);
+        ItemIntervals intervals = byItem.get(interval.itemId());
+        if (intervals == null) return;
+        intervals.lock.lock();
+        try {
+            intervals.starts.remove(interval.start(), interval);
+        } finally {
+            intervals.lock.unlock();
+        }
+    }
+
+    public void dropItem(Long itemId) {
+        byItem.remove(itemId);
+        publish(String.valueOf(itemId));
+    }
+
+    public List<FreeSlotDto> freeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookedInterval> busy;
+        loadLock.readLock().lock();
+        try {
+            LocalDateTime h = horizon;
+            if (h == null || from.isBefore(h)) {
+                busy = bookingRepository.findIntervalsOverlapping(List.of(itemId), BookingStatus.APPROVED, from, to)
+                        .stream()
+                        .sorted(Comparator.comparing(BookedInterval::start))
+                        .toList();
+            } else {
+                ItemIntervals intervals = byItem.get(itemId);
+                if (intervals == null) return List.of(new FreeSlotDto(from, to));
+                intervals.lock.lock();
+                try {
+                    busy = intervals.between(from, to);
+                } finally {
+                    intervals.lock.unlock();
+                }
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+        return gaps(from, to, busy);
+    }
+
+    //закончившиеся бронирования больше не участвуют в проверках, сдвигаем горизонт
+    @Scheduled(fixedDelayString = "${shareit.bookings.intervals.prune-ms:600000}")
+    public void prune() {
+        loadLock.writeLock().lock();
+        try {
+            if (horizon == null) return;
+            LocalDateTime now = LocalDateTime.now();
+            horizon = now;
+            int before = size();
+            byItem.values().forEach(i -> i.starts.headMap(now, false).values()
+                    .removeIf(b -> !b.end().isAfter(now)));
+            byItem.values().removeIf(i -> i.starts.isEmpty());
+            int removed = before - size();
+            if (removed > 0) log.debug("prune: removed intervals={}", removed);
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+    }
+
+    private void untilCompletion(BookedInterval interval) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        pending.put(interval.bookingId(), interval);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(interval);
+                } else {
+                    release(interval);
+                }
+            }
+        });
+    }
+
+    //под теми же блокировками, что и перечитывание: оно либо ещё видит интервал ожидающим, либо уже читает его из БД
+    private void confirm(BookedInterval interval) {
+        loadLock.readLock().lock();
+        try {
+            ItemIntervals intervals = byItem.get(interval.itemId());
+            if (intervals == null) {
+                pending.remove(interval.bookingId(), interval);
+                return;
+            }
+            intervals.lock.lock();
+            try {
+                pending.remove(interval.bookingId(), interval);
+            } finally {
+                intervals.lock.unlock();
+            }
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    private void publish(String payload) {
+        if (notify) notifyPublisher.publish(CHANNEL, payload);
+    }
+
+    private int size() {
+        return byItem.values().stream().mapToInt(i -> i.starts.size()).sum();
+    }
+
+    private boolean dbOverlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsByItem_IdAndStatusAndStartLessThanAndEndGreaterThan(
+                itemId, BookingStatus.APPROVED, end, start);
+    }
+
+    private ItemIntervals itemIntervals(Long itemId) {
+        return byItem.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private static List<FreeSlotDto> gaps(LocalDateTime from, LocalDateTime to, List<BookedInterval> busy) {
+        var slots = new ArrayList<FreeSlotDto>();
+        LocalDateTime cursor = from;
+        for (BookedInterval b : busy) {
+            if (b.start().isAfter(cursor)) slots.add(new FreeSlotDto(cursor, b.start()));
+            if (b.end().isAfter(cursor)) cursor = b.end();
+        }
+        if (cursor.isBefore(to)) slots.add(new FreeSlotDto(cursor, to));
+        return slots;
+    }
+
+    private static final class ItemIntervals {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NavigableMap<LocalDateTime, BookedInterval> starts = new TreeMap<>();
+
+        void add(BookedInterval interval) {
+            starts.put(interval.start(), interval);
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            var last = starts.lowerEntry(end);
+            return last != null && last.getValue().end().isAfter(start);
+        }
+
+        List<BookedInterval> between(LocalDateTime from, LocalDateTime to) {
+            var result = new ArrayList<BookedInterval>();
+            var first = starts.lowerEntry(from);
+            if (first != null && first.getValue().end().isAfter(from)) result.add(first.getValue());
+            result.addAll(starts.subMap(from, true, to, false).values());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.notify.NotifyHandler;
+
+/**
+ * Канал {@code booking_intervals}: перечитывает в {@link BookingIntervals} интервалы вещей,
+ * изменённых на других инстансах. После переподключения слушателя интервалы загружаются заново.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.bookings.intervals.notify", havingValue = "true")
+public class BookingIntervalsListener implements NotifyHandler {
+
+    private final BookingIntervals bookingIntervals;
+
+    @Override
+    public String channel() {
+        return BookingIntervals.CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        if (BookingIntervals.ALL.equals(payload)) {
+            bookingIntervals.load();
+            return;
+        }
+        try {
+            bookingIntervals.reloadItem(Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("listen: unexpected payload={}", payload);
+        }
+    }
+
+    @Override
+    public void resync() {
+        bookingIntervals.load();
+    }
+}
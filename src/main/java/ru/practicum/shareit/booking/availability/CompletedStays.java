@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Завершённые проживания: для каждого пользователя — отсортированный {@code long[]} id вещей,
+ * по которым у него есть подтверждённая и уже закончившаяся бронь. Право на отзыв проверяется
+ * бинарным поиском без запроса к БД.
+ * <p>
+ * Подтверждённые брони, которые ещё не закончились, ждут в очереди по времени окончания и переходят
+ * в набор при первой проверке после своего конца. Массив пользователя не меняется на месте —
+ * добавление заменяет его копией; карта и очередь живут в снимке, который {@link #reload} строит заново
+ * и публикует через volatile-поле. Поэтому проверка идёт без блокировок.
+ * <p>
+ * Набор строится при старте и видит подтверждения только этого инстанса: промах не означает отказ,
+ * его перепроверяет БД, см. {@link #record}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompletedStays {
+
+    private static final long[] EMPTY = new long[0];
+    private static final Comparator<Stay> BY_END = Comparator.comparing(Stay::end).thenComparing(Stay::bookingId);
+
+    private final BookingRepository bookingRepository;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    /**
+     * Новый снимок публикуется до чтения БД: подтверждение, пришедшее во время загрузки, попадёт в него
+     * напрямую или через запрос. Подтверждение, успевшее взять прежний снимок, в худшем случае даст промах,
+     * а промах перепроверяет БД.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Snapshot fresh = new Snapshot();
+        snapshot = fresh;
+        LocalDateTime now = LocalDateTime.now();
+        var stays = bookingRepository.findStays(BookingStatus.APPROVED);
+        int done = 0;
+        for (Stay stay : stays) {
+            if (stay.end().isBefore(now)) {
+                fresh.add(stay.bookerId(), stay.itemId());
+                done++;
+            } else {
+                fresh.pending.add(stay);
+            }
+        }
+        fresh.loaded = true;
+        log.info("reload: completed={}, pending={}, users={}", done, fresh.pending.size(), fresh.byUser.size());
+    }
+
+    /**
+     * Есть ли у пользователя закончившаяся подтверждённая бронь вещи. До окончания загрузки — false,
+     * вызывающий в этом случае идёт в БД.
+     */
+    public boolean contains(Long userId, Long itemId, LocalDateTime now) {
+        Snapshot s = snapshot;
+        if (!s.loaded) return false;
+        s.drain(now);
+        return Arrays.binarySearch(s.byUser.getOrDefault(userId, EMPTY), itemId) >= 0;
+    }
+
+    /**
+     * Подтверждённая бронь: сразу в набор, если уже закончилась, иначе в очередь до своего конца.
+     */
+    public void approved(Stay stay) {
+        Snapshot s = snapshot;
+        if (stay.end().isBefore(LocalDateTime.now())) {
+            s.add(stay.bookerId(), stay.itemId());
+        } else {
+            s.pending.add(stay);
+        }
+    }
+
+    /**
+     * Пара, подтверждённая БД после промаха: бронь подтверждена на другом инстансе или до загрузки.
+     */
+    public void record(Long userId, Long itemId) {
+        snapshot.add(userId, itemId);
+    }
+
+    public void dropUser(Long userId) {
+        snapshot.byUser.remove(userId);
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, long[]> byUser = new ConcurrentHashMap<>();
+        private final NavigableSet<Stay> pending = new ConcurrentSkipListSet<>(BY_END);
+        private volatile boolean loaded;
+
+        private void drain(LocalDateTime now) {
+            // всё, что закончилось строго раньше now; remove выигрывает только один из параллельных проверяющих
+            for (Stay stay : pending.headSet(new Stay(Long.MIN_VALUE, null, null, now))) {
+                if (pending.remove(stay)) add(stay.bookerId(), stay.itemId());
+            }
+        }
+
+        private void add(Long userId, Long itemId) {
+            byUser.compute(userId, (id, items) -> {
+                if (items == null) return new long[]{itemId};
+                int at = Arrays.binarySearch(items, itemId);
+                if (at >= 0) return items;
+                int insert = -at - 1;
+                long[] copy = new long[items.length + 1];
+                System.arraycopy(items, 0, copy, 0, insert);
+                copy[insert] = itemId;
+                System.arraycopy(items, insert, copy, insert + 1, items.length - insert);
+                return copy;
+            });
+        }
+    }
+}
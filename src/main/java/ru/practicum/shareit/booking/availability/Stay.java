@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Подтверждённое бронирование вещи пользователем, как его видит {@link CompletedStays}.
+ */
+public record Stay(Long bookingId, Long bookerId, Long itemId, LocalDateTime end) {
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@NoArgsConstructor(force = true)
+@AllArgsConstructor
+public class FreeSlotDto {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
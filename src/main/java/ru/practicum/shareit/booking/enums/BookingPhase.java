@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.enums;
+
+import java.time.LocalDateTime;
+
+/**
+ * Положение бронирования во времени, хранится в bookings.phase.
+ * FUTURE — ещё не началось, CURRENT — идёт, PAST — закончилось.
+ * Фазу продвигает {@code BookingPhaseScheduler}, назад она не возвращается;
+ * выборки по фазе сначала доводят фазы до текущего момента.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (!end.isAfter(now)) return PAST;
+        return start.isAfter(now) ? FUTURE : CURRENT;
+    }
+}
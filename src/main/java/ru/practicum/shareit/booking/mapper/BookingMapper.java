@@ -6,20 +6,29 @@ import org.mapstruct.MappingConstants;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRow;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
-@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, imports = {ru.practicum.shareit.booking.enums.BookingStatus.class})
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, imports = {ru.practicum.shareit.booking.enums.BookingStatus.class,
+        ru.practicum.shareit.booking.enums.BookingPhase.class, java.time.LocalDateTime.class})
 public interface BookingMapper {
 
     @Mapping(target = "itemId", source = "item.id")
     @Mapping(target = "bookerId", source = "booker.id")
     BookingDto toDto(Booking booking);
 
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    BookingDto toDto(BookingRow row);
+
 //    List<BookingDto> toDto(List<Booking> bookings);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", constant = "WAITING")
+    @Mapping(target = "phase", expression = "java(BookingPhase.of(dto.getStart(), dto.getEnd(), LocalDateTime.now()))")
+    @Mapping(target = "version", ignore = true)
     Booking toEntity(BookingCreateDto dto, Item item, User booker);
 
 }
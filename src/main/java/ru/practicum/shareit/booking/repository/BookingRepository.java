@@ -1,23 +1,70 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.availability.BookedInterval;
+import ru.practicum.shareit.booking.availability.Stay;
+import ru.practicum.shareit.booking.enums.BookingPhase;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+//запросы только читают; изменяющие методы переопределяют это своим @Transactional
+@Transactional(readOnly = true)
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    //пересечение с [start, end): start брони < end и end брони > start
     boolean existsByItem_IdAndStatusAndStartLessThanAndEndGreaterThan(
-            Long itemId, BookingStatus status, LocalDateTime start, LocalDateTime end);
+            Long itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
 
     Optional<Booking> findByItem_Id(Long itemId);
 
+    //подтверждённые брони вещей, пересекающие [start, end), — без сущностей и их связей
+    @Query("""
+              select new ru.practicum.shareit.booking.availability.BookedInterval(b.id, b.item.id, b.start, b.end)
+              from Booking b
+              where b.item.id in :itemIds and b.status = :status and b.start < :end and b.end > :start
+            """)
+    List<BookedInterval> findIntervalsOverlapping(Collection<Long> itemIds, BookingStatus status,
+                                                  LocalDateTime start, LocalDateTime end);
+
+    @Query("""
+              select new ru.practicum.shareit.booking.availability.BookedInterval(b.id, b.item.id, b.start, b.end)
+              from Booking b
+              where b.status = :status and b.end > :after
+            """)
+    List<BookedInterval> findIntervalsEndingAfter(BookingStatus status, LocalDateTime after);
+
+    @Query("""
+              select new ru.practicum.shareit.booking.availability.BookedInterval(b.id, b.item.id, b.start, b.end)
+              from Booking b
+              where b.item.id = :itemId and b.status = :status and b.end > :after
+            """)
+    List<BookedInterval> findIntervalsByItemEndingAfter(Long itemId, BookingStatus status, LocalDateTime after);
+
+    @Query("""
+              select new ru.practicum.shareit.booking.availability.Stay(b.id, b.booker.id, b.item.id, b.end)
+              from Booking b
+              where b.status = :status
+            """)
+    List<Stay> findStays(BookingStatus status);
+
+    //перепроверка промаха CompletedStays; статус литералом, иначе обобщённый план не берёт частичный индекс
+    @Query(value = """
+              select exists (select 1 from bookings b
+                             where b.id_booker = :bookerId and b.id_item = :itemId
+                               and b.status = 'APPROVED' and b.end_time < :endBefore)
+            """, nativeQuery = true)
+    boolean existsCompletedStay(Long bookerId, Long itemId, LocalDateTime endBefore);
+
     @Query("""
               select b from Booking b
               join fetch b.booker
@@ -27,53 +74,162 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             """)
     Optional<Booking> findDetailedById(Long id);
 
-    //поиск по state
-    Page<Booking> findByBooker_Id(Long userId, Pageable p);
+    //поиск по state: проекции сразу в строки списка, порядок задаёт Pageable;
+    //перед выборкой по фазе фазы доводятся до текущего момента (BookingPhaseScheduler.catchUp)
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where b.booker.id = :userId
+            """)
+    Slice<BookingRow> listByBooker(Long userId, Pageable p);
+
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where b.booker.id = :userId and b.phase = :phase
+            """)
+    Slice<BookingRow> listByBookerAndPhase(Long userId, BookingPhase phase, Pageable p);
 
-    Page<Booking> findByBooker_IdAndStartBeforeAndEndAfter(Long userId, LocalDateTime now1, LocalDateTime now2, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where b.booker.id = :userId and b.status = :status
+            """)
+    Slice<BookingRow> listByBookerAndStatus(Long userId, BookingStatus status, Pageable p);
 
-    Page<Booking> findByBooker_IdAndEndBefore(Long userId, LocalDateTime now, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where i.owner.id = :ownerId
+            """)
+    Slice<BookingRow> listByOwner(Long ownerId, Pageable p);
 
-    Page<Booking> findByBooker_IdAndStartAfter(Long userId, LocalDateTime now, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where i.owner.id = :ownerId and b.phase = :phase
+            """)
+    Slice<BookingRow> listByOwnerAndPhase(Long ownerId, BookingPhase phase, Pageable p);
 
-    Page<Booking> findByBooker_IdAndStatus(Long userId, BookingStatus status, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where i.owner.id = :ownerId and b.status = :status
+            """)
+    Slice<BookingRow> listByOwnerAndStatus(Long ownerId, BookingStatus status, Pageable p);
 
-    Page<Booking> findByItem_Owner_Id(Long ownerId, Pageable p);
+    //keyset-пагинация: строки строго после курсора (start, id) в порядке start desc, id desc
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where b.booker.id = :userId
+                and (b.start < :start or (b.start = :start and b.id < :id))
+              order by b.start desc, b.id desc
+            """)
+    Slice<BookingRow> seekByBooker(Long userId, LocalDateTime start, Long id, Pageable p);
 
-    Page<Booking> findByItem_Owner_IdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime now1, LocalDateTime now2, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where b.booker.id = :userId and b.phase = :phase
+                and (b.start < :start or (b.start = :start and b.id < :id))
+              order by b.start desc, b.id desc
+            """)
+    Slice<BookingRow> seekByBookerAndPhase(Long userId, BookingPhase phase, LocalDateTime start, Long id, Pageable p);
 
-    Page<Booking> findByItem_Owner_IdAndEndBefore(Long ownerId, LocalDateTime now, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where b.booker.id = :userId and b.status = :status
+                and (b.start < :start or (b.start = :start and b.id < :id))
+              order by b.start desc, b.id desc
+            """)
+    Slice<BookingRow> seekByBookerAndStatus(Long userId, BookingStatus status, LocalDateTime start, Long id, Pageable p);
 
-    Page<Booking> findByItem_Owner_IdAndStartAfter(Long ownerId, LocalDateTime now, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where i.owner.id = :ownerId
+                and (b.start < :start or (b.start = :start and b.id < :id))
+              order by b.start desc, b.id desc
+            """)
+    Slice<BookingRow> seekByOwner(Long ownerId, LocalDateTime start, Long id, Pageable p);
 
-    Page<Booking> findByItem_Owner_IdAndStatus(Long ownerId, BookingStatus status, Pageable p);
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where i.owner.id = :ownerId and b.phase = :phase
+                and (b.start < :start or (b.start = :start and b.id < :id))
+              order by b.start desc, b.id desc
+            """)
+    Slice<BookingRow> seekByOwnerAndPhase(Long ownerId, BookingPhase phase, LocalDateTime start, Long id, Pageable p);
 
+    @Query("""
+              select new ru.practicum.shareit.booking.repository.BookingRow(
+                  b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)
+              from Booking b join b.item i
+              where i.owner.id = :ownerId and b.status = :status
+                and (b.start < :start or (b.start = :start and b.id < :id))
+              order by b.start desc, b.id desc
+            """)
+    Slice<BookingRow> seekByOwnerAndStatus(Long ownerId, BookingStatus status, LocalDateTime start, Long id, Pageable p);
 
+    /**
+     * Новая бронь одним запросом: вставка происходит, только если вещь есть, доступна, принадлежит не бронирующему
+     * и не пересекается с подтверждёнными бронями. Пустой результат — одно из условий не выполнено.
+     */
+    @Transactional
     @Query(value = """
-              select distinct on (b.id_item) b.*
-              from bookings b
-              where b.id_item in (:ids)
-                and b.status = :st
-                and b.start_time < :now
-              order by b.id_item, b.end_time desc
+              with created as (
+                  insert into bookings (start_time, end_time, id_item, id_booker, status, phase)
+                  select :start, :end, i.id_item, :bookerId, 'WAITING', :phase
+                  from items i
+                  where i.id_item = :itemId and i.available and i.owner_id <> :bookerId
+                    and not exists (select 1 from bookings b
+                                    where b.id_item = i.id_item and b.status = 'APPROVED'
+                                      and tsrange(b.start_time, b.end_time) && tsrange(:start, :end))
+                  returning id_booking, id_item)
+              select c.id_booking as id, i.name as itemName
+              from created c
+              join items i on i.id_item = c.id_item
             """, nativeQuery = true)
-    List<Booking> findLastByItemIds(List<Long> ids,
-                                    LocalDateTime now,
-                                    String st);
+    Optional<CreatedBooking> createIfFree(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                                          String phase);
 
+    //переходы фаз пакетами; сначала завершение, чтобы FUTURE с прошедшим end_time сразу стал PAST;
+    //строки, занятые другим инстансом, пропускаются — их переведёт он; порядок по ключу частичного индекса и id
+    @Modifying
+    @Transactional
     @Query(value = """
-              select distinct on (b.id_item) b.*
-              from bookings b
-              where b.id_item in (:ids)
-                and b.status = :st
-                and b.start_time > :now
-              order by b.id_item, b.start_time
+              update bookings set phase = 'PAST'
+              where id_booking in (select id_booking from bookings
+                                   where phase <> 'PAST' and end_time <= :now
+                                   order by end_time, id_booking
+                                   limit :limit
+                                   for update skip locked)
             """, nativeQuery = true)
-    List<Booking> findNextByItemIds(List<Long> ids,
-                                    LocalDateTime now,
-                                    String st);
+    int finishDue(LocalDateTime now, int limit);
 
-    boolean existsByBooker_IdAndItem_IdAndStatusAndEndBefore(
-            Long bookerId, Long itemId, BookingStatus status, LocalDateTime endBefore
-    );
+    @Modifying
+    @Transactional
+    @Query(value = """
+              update bookings set phase = 'CURRENT'
+              where id_booking in (select id_booking from bookings
+                                   where phase = 'FUTURE' and start_time <= :now
+                                   order by start_time, id_booking
+                                   limit :limit
+                                   for update skip locked)
+            """, nativeQuery = true)
+    int startDue(LocalDateTime now, int limit);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: ровно те поля, что уходят в {@code BookingDto}, без сущностей в контексте.
+ */
+public record BookingRow(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         Long itemId, String itemName, Long bookerId) {
+}
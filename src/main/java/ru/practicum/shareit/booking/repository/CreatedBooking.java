@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Результат {@link BookingRepository#createIfFree}: id новой брони и имя вещи для ответа.
+ * Интерфейс, а не record: native-запросы Spring Data отображает только в интерфейсные проекции.
+ */
+public interface CreatedBooking {
+
+    Long getId();
+
+    String getItemName();
+}
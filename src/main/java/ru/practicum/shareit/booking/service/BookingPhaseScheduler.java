@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Переводит бронирования FUTURE → CURRENT → PAST пакетами по мере наступления start_time и end_time.
+ * Очереди — частичные индексы по start_time/end_time, поэтому тик без переходов почти ничего не стоит.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPhaseScheduler {
+
+    static final int BATCH = 1000;
+
+    private final BookingRepository bookingRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.bookings.phase.tick-ms:1000}")
+    public void advance() {
+        catchUp(LocalDateTime.now());
+    }
+
+    /**
+     * Доводит фазы до момента {@code now}. Вызывается и перед выборкой по фазе,
+     * чтобы результат не отставал от часов на период тика.
+     */
+    public void catchUp(LocalDateTime now) {
+        int finished = 0;
+        int started = 0;
+        int n;
+        do {
+            n = bookingRepository.finishDue(now, BATCH);
+            finished += n;
+        } while (n == BATCH);
+        do {
+            n = bookingRepository.startDue(now, BATCH);
+            started += n;
+        } while (n == BATCH);
+        if (finished + started > 0) log.debug("catchUp: started={}, finished={}", started, finished);
+    }
+}
@@ -4,16 +4,23 @@ import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.Role;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.CursorPage;
 
 import java.util.List;
 
 public interface BookingService {
-    BookingDto create(Long userId, BookingCreateDto dto);
+    BookingDto create(Sharer booker, BookingCreateDto dto);
+
+    List<BatchResultDto> createBatch(Sharer booker, List<BookingCreateDto> dtos);
 
     BookingDto approve(Long ownerId, Long bookingId, boolean approved);
 
     BookingDto getStatusById(Long userId, Long bookingId);
 
-    List<BookingDto> getBookings(Long ownerId, Role role, BookingState status, int from, int size);
+    List<BookingDto> getBookings(Sharer user, Role role, BookingState status, int from, int size);
+
+    CursorPage<BookingDto> getBookingsAfter(Sharer user, Role role, BookingState state, String after, int size);
 
 }
@@ -1,30 +1,51 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.availability.BookedInterval;
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.booking.availability.CompletedStays;
+import ru.practicum.shareit.booking.availability.Stay;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingPhase;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.enums.Role;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.booking.repository.CreatedBooking;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.GlobalExceptionHandler;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.identity.Sharer;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_METRIC, histogram = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
@@ -32,32 +53,105 @@ public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepo;
     private final UserRepository userRepo;
     private final BookingMapper mapper;
+    private final ItemSummaryRepository summaryRepository;
+    private final Validator validator;
+    private final BookingIntervals bookingIntervals;
+    private final BookingPhaseScheduler phaseScheduler;
+    private final CompletedStays completedStays;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
 
     @Transactional
     @Override
-    public BookingDto create(Long userId, BookingCreateDto dto) {
+    public BookingDto create(Sharer sharer, BookingCreateDto dto) {
         if (!dto.getStart().isBefore(dto.getEnd())) {
             throw new IllegalArgumentException("start must be before end");
         }
-        User booker = userRepo.findById(userId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("booker not found"));
-        Item item = itemRepo.findById(dto.getItemId())
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("item not found"));
+        Long userId = sharer.id();
+        BookingPhase phase = BookingPhase.of(dto.getStart(), dto.getEnd(), LocalDateTime.now());
+        // проверки и вставка — один запрос; причину отказа выясняем, только если строка не вставилась
+        CreatedBooking created = bookingRepo
+                .createIfFree(dto.getItemId(), userId, dto.getStart(), dto.getEnd(), phase.name())
+                .orElseThrow(() -> rejection(userId, dto));
+        return mapper.toDto(new BookingRow(created.getId(), dto.getStart(), dto.getEnd(), BookingStatus.WAITING,
+                dto.getItemId(), created.getItemName(), userId));
+    }
 
-        if (item.getOwner() == null)
-            throw new GlobalExceptionHandler.NotFoundException("item owner missing");
-        if (item.getOwner().getId().equals(userId))
-            throw new IllegalStateException("owner cannot book own item");
-        if (!Boolean.TRUE.equals(item.getAvailable()))
-            throw new IllegalStateException("item not available");
-        if (bookingRepo.existsByItem_IdAndStatusAndStartLessThanAndEndGreaterThan(item.getId(), BookingStatus.APPROVED, dto.getStart(), dto.getEnd()))
-            throw new IllegalStateException("overlaps with approved booking");
+    private RuntimeException rejection(Long userId, BookingCreateDto dto) {
+        Item item = itemRepo.findById(dto.getItemId()).orElse(null);
+        if (item == null) return new GlobalExceptionHandler.NotFoundException("item not found");
+        if (item.getOwner().getId().equals(userId)) return new IllegalStateException("owner cannot book own item");
+        if (!Boolean.TRUE.equals(item.getAvailable())) return new IllegalStateException("item not available");
+        return new IllegalStateException("overlaps with approved booking");
+    }
+
+    @Transactional
+    @Override
+    public List<BatchResultDto> createBatch(Sharer sharer, List<BookingCreateDto> dtos) {
+        if (dtos.size() > BatchResultDto.MAX_ROWS) {
+            throw new IllegalArgumentException("batch is limited to " + BatchResultDto.MAX_ROWS + " rows");
+        }
+        Long userId = sharer.id();
+        User booker = userRepo.getReferenceById(userId);
 
-        Booking b = mapper.toEntity(dto, item, booker);
+        var results = new BatchResultDto[dtos.size()];
+        var valid = new ArrayList<Integer>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingCreateDto dto = dtos.get(i);
+            if (dto == null) {
+                results[i] = BatchResultDto.failed(i, "empty row");
+                continue;
+            }
+            var violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                results[i] = BatchResultDto.failed(i, BatchResultDto.describe(violations));
+            } else if (!dto.getStart().isBefore(dto.getEnd())) {
+                results[i] = BatchResultDto.failed(i, "start must be before end");
+            } else {
+                valid.add(i);
+            }
+        }
+        if (valid.isEmpty()) return List.of(results);
 
+        // вещи и подтверждённые брони, пересекающие общий интервал пакета, загружаются одним запросом каждое
+        var itemIds = valid.stream().map(i -> dtos.get(i).getItemId()).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepo.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        var from = valid.stream().map(i -> dtos.get(i).getStart()).min(Comparator.naturalOrder()).orElseThrow();
+        var to = valid.stream().map(i -> dtos.get(i).getEnd()).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<BookedInterval>> approved = bookingRepo
+                .findIntervalsOverlapping(itemIds, BookingStatus.APPROVED, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookedInterval::itemId));
 
-        b = bookingRepo.save(b);
-        return mapper.toDto(b);
+        var bookings = new ArrayList<Booking>();
+        var indexes = new ArrayList<Integer>();
+        for (int i : valid) {
+            BookingCreateDto dto = dtos.get(i);
+            Item item = items.get(dto.getItemId());
+            String error;
+            if (item == null || item.getOwner() == null) {
+                error = "item not found";
+            } else if (item.getOwner().getId().equals(userId)) {
+                error = "owner cannot book own item";
+            } else if (!Boolean.TRUE.equals(item.getAvailable())) {
+                error = "item not available";
+            } else if (approved.getOrDefault(item.getId(), List.of()).stream()
+                    .anyMatch(b -> b.start().isBefore(dto.getEnd()) && b.end().isAfter(dto.getStart()))) {
+                error = "overlaps with approved booking";
+            } else {
+                bookings.add(mapper.toEntity(dto, item, booker));
+                indexes.add(i);
+                continue;
+            }
+            results[i] = BatchResultDto.failed(i, error);
+        }
+
+        var saved = bookingRepo.saveAllAndFlush(bookings);
+        for (int k = 0; k < saved.size(); k++) {
+            results[indexes.get(k)] = BatchResultDto.ok(indexes.get(k), saved.get(k).getId());
+        }
+        return List.of(results);
     }
 
     @Override
@@ -71,14 +165,29 @@ public class BookingServiceImpl implements BookingService {
         if (b.getStatus() != BookingStatus.WAITING)
             throw new IllegalStateException("already decided");
 
+        var interval = new BookedInterval(b.getId(), b.getItem().getId(), b.getStart(), b.getEnd());
         if (approved) {
-            if (bookingRepo.existsByItem_IdAndStatusAndStartLessThanAndEndGreaterThan(b.getItem().getId(), BookingStatus.APPROVED, b.getStart(), b.getEnd()))
+            if (!bookingIntervals.tryReserve(interval))
                 throw new IllegalStateException("overlaps with approved booking");
             b.setStatus(BookingStatus.APPROVED);
         } else {
             b.setStatus(BookingStatus.REJECTED);
         }
-        return mapper.toDto(bookingRepo.save(b));//или криэйт
+        Booking saved;
+        try {
+            saved = bookingRepo.save(b);
+        } catch (RuntimeException e) {
+            if (approved) bookingIntervals.release(interval);
+            throw e;
+        }
+        // на сводку влияют только подтверждённые бронирования, новые (WAITING) её не меняют
+        if (approved) {
+            bookingIntervals.changed(saved.getItem().getId());
+            summaryRepository.refresh(saved.getItem().getId(), LocalDateTime.now());
+            completedStays.approved(new Stay(saved.getId(), saved.getBooker().getId(), saved.getItem().getId(),
+                    saved.getEnd()));
+        }
+        return mapper.toDto(saved);
     }
 
     @Override
@@ -94,36 +203,81 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getBookings(Long userId, Role role, BookingState state, int from, int size) {
-        if (!userRepo.existsById(userId)) throw new GlobalExceptionHandler.NotFoundException("user not found");
-        var now = LocalDateTime.now();
-
-        Pageable pg = PageRequest.of(from / size, size,
-                Sort.by(Sort.Direction.DESC, "start"));
+    public List<BookingDto> getBookings(Sharer user, Role role, BookingState state, int from, int size) {
+        return findPage(user.id(), role, state, PageRequest.of(from / size, size, NEWEST_FIRST))
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
 
-        Page<Booking> page = switch (role) {
+    private Slice<BookingRow> findPage(Long userId, Role role, BookingState state, Pageable pg) {
+        BookingPhase phase = phaseOf(state);
+        return switch (role) {
             case BOOKER -> switch (state) {
-                case ALL -> bookingRepo.findByBooker_Id(userId, pg);
-                case CURRENT -> bookingRepo.findByBooker_IdAndStartBeforeAndEndAfter(userId, now, now, pg);
-                case PAST -> bookingRepo.findByBooker_IdAndEndBefore(userId, now, pg);
-                case FUTURE -> bookingRepo.findByBooker_IdAndStartAfter(userId, now, pg);
-                case WAITING -> bookingRepo.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, pg);
-                case REJECTED -> bookingRepo.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, pg);
+                case ALL -> bookingRepo.listByBooker(userId, pg);
+                case CURRENT, PAST, FUTURE -> bookingRepo.listByBookerAndPhase(userId, phase, pg);
+                case WAITING -> bookingRepo.listByBookerAndStatus(userId, BookingStatus.WAITING, pg);
+                case REJECTED -> bookingRepo.listByBookerAndStatus(userId, BookingStatus.REJECTED, pg);
             };
             case OWNER -> switch (state) {
-                case ALL -> bookingRepo.findByItem_Owner_Id(userId, pg);
-                case CURRENT -> bookingRepo.findByItem_Owner_IdAndStartBeforeAndEndAfter(userId, now, now, pg);
-                case PAST -> bookingRepo.findByItem_Owner_IdAndEndBefore(userId, now, pg);
-                case FUTURE -> bookingRepo.findByItem_Owner_IdAndStartAfter(userId, now, pg);
-                case WAITING -> bookingRepo.findByItem_Owner_IdAndStatus(userId, BookingStatus.WAITING, pg);
-                case REJECTED -> bookingRepo.findByItem_Owner_IdAndStatus(userId, BookingStatus.REJECTED, pg);
+                case ALL -> bookingRepo.listByOwner(userId, pg);
+                case CURRENT, PAST, FUTURE -> bookingRepo.listByOwnerAndPhase(userId, phase, pg);
+                case WAITING -> bookingRepo.listByOwnerAndStatus(userId, BookingStatus.WAITING, pg);
+                case REJECTED -> bookingRepo.listByOwnerAndStatus(userId, BookingStatus.REJECTED, pg);
             };
         };
+    }
 
-        return page
-                .stream()
+    /**
+     * Фаза для временных состояний; перед выборкой фазы доводятся до текущего момента,
+     * чтобы запрос шёл по равенству фазы и результат не отставал от часов на период тика.
+     */
+    private BookingPhase phaseOf(BookingState state) {
+        BookingPhase phase = switch (state) {
+            case CURRENT -> BookingPhase.CURRENT;
+            case PAST -> BookingPhase.PAST;
+            case FUTURE -> BookingPhase.FUTURE;
+            default -> null;
+        };
+        if (phase != null) phaseScheduler.catchUp(LocalDateTime.now());
+        return phase;
+    }
+
+    @Override
+    public CursorPage<BookingDto> getBookingsAfter(Sharer user, Role role, BookingState state, String after, int size) {
+        Slice<BookingRow> slice = after.isEmpty()
+                ? findPage(user.id(), role, state, PageRequest.of(0, size, NEWEST_FIRST))
+                : seekPage(user.id(), role, state, PageCursor.decode(after), PageRequest.ofSize(size));
+
+        var items = slice.stream()
                 .map(mapper::toDto)
                 .toList();
+        return new CursorPage<>(items, slice.hasNext() ? nextCursor(items.getLast()) : null);
+    }
+
+    private Slice<BookingRow> seekPage(Long userId, Role role, BookingState state, PageCursor cursor, Pageable pg) {
+        if (cursor.start() == null) throw new IllegalArgumentException("invalid cursor");
+        var start = cursor.start();
+        var id = cursor.id();
+        BookingPhase phase = phaseOf(state);
+        return switch (role) {
+            case BOOKER -> switch (state) {
+                case ALL -> bookingRepo.seekByBooker(userId, start, id, pg);
+                case CURRENT, PAST, FUTURE -> bookingRepo.seekByBookerAndPhase(userId, phase, start, id, pg);
+                case WAITING -> bookingRepo.seekByBookerAndStatus(userId, BookingStatus.WAITING, start, id, pg);
+                case REJECTED -> bookingRepo.seekByBookerAndStatus(userId, BookingStatus.REJECTED, start, id, pg);
+            };
+            case OWNER -> switch (state) {
+                case ALL -> bookingRepo.seekByOwner(userId, start, id, pg);
+                case CURRENT, PAST, FUTURE -> bookingRepo.seekByOwnerAndPhase(userId, phase, start, id, pg);
+                case WAITING -> bookingRepo.seekByOwnerAndStatus(userId, BookingStatus.WAITING, start, id, pg);
+                case REJECTED -> bookingRepo.seekByOwnerAndStatus(userId, BookingStatus.REJECTED, start, id, pg);
+            };
+        };
+    }
+
+    private static String nextCursor(BookingDto last) {
+        return new PageCursor(last.getStart(), last.getId()).encode();
     }
 
 
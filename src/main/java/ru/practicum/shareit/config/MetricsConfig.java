@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Таймеры методов сервисов. Маршруты контроллеров (http.server.requests) и вызовы репозиториев
+ * (spring.data.repository.invocations) Spring Boot меряет сам, здесь — только то, чего он не делает.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Метрика методов классов с {@code @Timed}, теги class и method.
+     */
+    public static final String SERVICE_METRIC = "shareit.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
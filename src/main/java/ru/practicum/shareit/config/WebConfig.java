@@ -0,0 +1,24 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.user.identity.SharerUserArgumentResolver;
+
+import java.util.List;
+
+/**
+ * Параметры контроллеров {@code @SharerUser Sharer}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SharerUserArgumentResolver sharerUserArgumentResolver;
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(sharerUserArgumentResolver);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.Map;
@@ -16,12 +19,15 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String BOOKINGS_NO_OVERLAP = "bookings_no_overlap";
+
     @ExceptionHandler({
             MethodArgumentNotValidException.class,
             BindException.class,
             IllegalArgumentException.class,
             MissingRequestHeaderException.class,
-            MethodArgumentTypeMismatchException.class
+            MethodArgumentTypeMismatchException.class,
+            HandlerMethodValidationException.class
     })
     public ResponseEntity<Map<String, String>> badRequest(Exception ex) {
         log.error(ex.getMessage(), ex);
@@ -49,6 +55,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
     }
 
+    // 409 — проигравший в гонке: ограничение БД или параллельное изменение той же записи
+    @ExceptionHandler({DataIntegrityViolationException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, String>> concurrentConflict(Exception ex) {
+        log.warn(ex.getMessage());
+        String error;
+        if (ex instanceof OptimisticLockingFailureException) {
+            error = "concurrent modification";
+        } else if (String.valueOf(ex.getMessage()).contains(BOOKINGS_NO_OVERLAP)) {
+            error = "overlaps with approved booking";
+        } else {
+            error = "data integrity violation";
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", error));
+    }
+
+    //500 — маршрут превысил @SqlBudget при shareit.sql.budget-mode=fail
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<Map<String, String>> sqlBudget(SqlBudgetExceededException ex) {
+        log.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", ex.getMessage()));
+    }
+
     //500
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> internal(Exception ex) {
@@ -67,4 +95,10 @@ public class GlobalExceptionHandler {
             super(m);
         }
     }
+
+    public static class SqlBudgetExceededException extends RuntimeException {
+        public SqlBudgetExceededException(String m) {
+            super(m);
+        }
+    }
 }
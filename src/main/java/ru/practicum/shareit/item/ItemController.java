@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
 import ru.practicum.shareit.item.comment.CommentCreateDto;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
@@ -10,7 +15,13 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.sql.SqlBudget;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.user.identity.SharerUser;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -21,9 +32,15 @@ public class ItemController {
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ItemDto create(@RequestHeader(USER_HEADER) Long userId,
+    public ItemDto create(@SharerUser Sharer owner,
                           @Valid @RequestBody ItemCreateDto dto) {
-        return itemService.create(userId, dto);
+        return itemService.create(owner, dto);
+    }
+
+    @PostMapping("/batch")
+    public List<BatchResultDto> createBatch(@SharerUser Sharer owner,
+                                            @RequestBody List<ItemCreateDto> dtos) {
+        return itemService.createBatch(owner, dtos);
     }
 
     @PatchMapping("/{itemId}")
@@ -33,6 +50,7 @@ public class ItemController {
         return itemService.update(userId, itemId, patch);
     }
 
+    @SqlBudget(2)
     @GetMapping("/{itemId}")
     public ItemDto getById(@RequestHeader(USER_HEADER) Long userId,
                            @PathVariable Long itemId) {
@@ -45,24 +63,59 @@ public class ItemController {
         itemService.delete(ownerID, itemId);
     }
 
+    @SqlBudget(1)
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable Long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    //поиск в памяти — строки вещей; postgres или интервал до горизонта индекса броней — ещё один запрос
+    @SqlBudget(2)
     @GetMapping("/search")
     public List<ItemDto> search(@RequestHeader(USER_HEADER) Long requesterId,
-                                @RequestParam String text) {
-        return itemService.search(requesterId, text);
+                                @RequestParam String text,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                @RequestParam(defaultValue = "20") @Positive int size) {
+        return itemService.search(requesterId, text, start, end, from, size);
     }
 
+    //пользователь, перепроверка брони при промахе CompletedStays, вставка, инвалидация кэша на других инстансах
+    @SqlBudget(4)
     @PostMapping("/{itemId}/comment")
-    public CommentDto addComment(@RequestHeader(USER_HEADER) Long userID,
+    public CommentDto addComment(@SharerUser Sharer author,
                                  @PathVariable Long itemId,
                                  @RequestBody @Valid CommentCreateDto dto) {
-        return itemService.addComment(userID, itemId, dto);
+        return itemService.addComment(author, itemId, dto);
+    }
+
+    @SqlBudget(2)
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "20") @Positive int size) {
+        CursorPage<CommentDto> page = itemService.getComments(itemId, after, size);
+        var response = ResponseEntity.ok();
+        if (page.next() != null) response.header(CursorPage.NEXT_HEADER, page.next());
+        return response.body(page.items());
     }
 
+    @SqlBudget(2)
     @GetMapping
-    public List<ItemOwnerDto> findAllItemsByUser(@RequestHeader(USER_HEADER) Long ownerId,
-                                                 @RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "20") int size) {
-        return itemService.findAllByOwnerWithBookings(ownerId, from, size);
+    public ResponseEntity<List<ItemOwnerDto>> findAllItemsByUser(@RequestHeader(USER_HEADER) Long ownerId,
+                                                                 @RequestParam(defaultValue = "0") int from,
+                                                                 @RequestParam(defaultValue = "20") int size,
+                                                                 @RequestParam(required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(itemService.findAllByOwnerWithBookings(ownerId, from, size));
+        }
+        CursorPage<ItemOwnerDto> page = itemService.findAllByOwnerWithBookingsAfter(ownerId, after, size);
+        var response = ResponseEntity.ok();
+        if (page.next() != null) response.header(CursorPage.NEXT_HEADER, page.next());
+        return response.body(page.items());
     }
 
 }
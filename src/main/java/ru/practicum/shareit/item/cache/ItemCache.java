@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.notify.NotifyPublisher;
+
+/**
+ * Инвалидация кэша собранных {@code ItemDto}. Локальная запись удаляется сразу,
+ * остальным инстансам отправляется {@code NOTIFY}, см. {@link ItemCacheListener}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemCache {
+
+    public static final String NAME = "items";
+    static final String CHANNEL = "item_cache";
+    static final String ALL = "*";
+
+    private final CacheManager cacheManager;
+    private final NotifyPublisher notifyPublisher;
+
+    @Value("${shareit.items.cache.notify:false}")
+    private boolean notify;
+
+    public void evict(Long itemId) {
+        evictLocal(itemId);
+        if (notify) notifyPublisher.publish(CHANNEL, String.valueOf(itemId));
+    }
+
+    /**
+     * Собранный {@code ItemDto}, если он уже в локальном кэше, иначе null.
+     */
+    public ItemDto peek(Long itemId) {
+        Cache cache = cacheManager.getCache(NAME);
+        return cache == null ? null : cache.get(itemId, ItemDto.class);
+    }
+
+    public void clear() {
+        clearLocal();
+        if (notify) notifyPublisher.publish(CHANNEL, ALL);
+    }
+
+    void clearLocal() {
+        Cache cache = cacheManager.getCache(NAME);
+        if (cache != null) cache.clear();
+        log.debug("clear");
+    }
+
+    void evictLocal(Long itemId) {
+        Cache cache = cacheManager.getCache(NAME);
+        if (cache != null) cache.evict(itemId);
+        log.debug("evict: itemId={}", itemId);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.notify.NotifyHandler;
+
+/**
+ * Канал {@code item_cache}: удаляет из локального кэша вещи, изменённые на других инстансах.
+ * После переподключения слушателя кэш сбрасывается целиком — уведомления за время обрыва потеряны.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.items.cache.notify", havingValue = "true")
+public class ItemCacheListener implements NotifyHandler {
+
+    private final ItemCache itemCache;
+
+    @Override
+    public String channel() {
+        return ItemCache.CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        if (ItemCache.ALL.equals(payload)) {
+            itemCache.clearLocal();
+            return;
+        }
+        try {
+            itemCache.evictLocal(Long.valueOf(payload));
+        } catch (NumberFormatException e) {
+            log.warn("listen: unexpected payload={}", payload);
+        }
+    }
+
+    @Override
+    public void resync() {
+        itemCache.clearLocal();
+    }
+}
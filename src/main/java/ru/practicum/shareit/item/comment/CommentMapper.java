@@ -13,5 +13,10 @@ public interface CommentMapper {
     @Mapping(target = "id", ignore = true)
     CommentDto toDto(Comment c);
 
+    @Mapping(target = "id", ignore = true)
+    CommentDto toDto(CommentRow row);
+
     List<CommentDto> toDto(List<Comment> entities);
+
+    List<CommentDto> toRowDtos(List<? extends CommentRow> rows);
 }
@@ -1,21 +1,80 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
-import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface CommentRepository extends CrudRepository<Comment, Long> {
-    List<Comment> findByItem_IdOrderByCreatedAsc(Long itemId);
 
+    //первая страница отзывов вещи, новые сначала; обслуживает индекс comments(id_item, created, id_comment)
     @Query("""
-                select c
+                select c.commentId as id, a.name as authorName, c.text as text, c.created as created
                 from Comment c
-                  join fetch c.item i
-                  join fetch c.author a
-                where i.id in :ids
-                order by i.id asc, c.created asc
+                  join c.author a
+                where c.item.id = :itemId
+                order by c.created desc, c.commentId desc
             """)
-    List<Comment> findByItemIdInOrderByCreatedAsc(@Param("ids") List<Long> ids);
+    Slice<CommentRow> findNewestByItem(Long itemId, Pageable p);
+
+    //счётчик для карточки, у вещи которой ещё нет строки item_summary
+    long countByItem_Id(Long itemId);
+
+    //следующая страница после отзыва (created, id); сравнение строк — одно условие на диапазон индекса
+    @Query("""
+                select c.commentId as id, a.name as authorName, c.text as text, c.created as created
+                from Comment c
+                  join c.author a
+                where c.item.id = :itemId
+                  and (c.created, c.commentId) < (:created, :id)
+                order by c.created desc, c.commentId desc
+            """)
+    Slice<CommentRow> seekByItem(Long itemId, LocalDateTime created, Long id, Pageable p);
+
+    /**
+     * Не больше {@code limit} последних отзывов каждой вещи, новые сначала: lateral-подзапрос на вещь
+     * читает только верхушку индекса, сколько бы отзывов у неё ни было.
+     */
+    @Query(value = """
+              select i.id_item as itemId, c.id_comment as id, u.name as authorName, c.text as text,
+                     c.created as created
+              from items i
+              cross join lateral (
+                  select c.id_comment, c.author_id, c.text, c.created
+                  from comments c
+                  where c.id_item = i.id_item
+                  order by c.created desc, c.id_comment desc
+                  limit :limit) c
+              join users u on u.id_user = c.author_id
+              where i.id_item in (:itemIds)
+            """, nativeQuery = true)
+    List<ItemCommentRow> findNewestByItems(List<Long> itemIds, int limit);
+
+    /**
+     * Отзыв одним запросом: вставка, если вещь ещё существует, вместе с ней — счётчик отзывов в item_summary.
+     * Право на отзыв проверяет вызывающий. Пустой результат — вещи нет.
+     */
+    @Transactional
+    @Query(value = """
+              with created as (
+                  insert into comments (id_item, author_id, text, created)
+                  select i.id_item, :authorId, :text, :created
+                  from items i
+                  where i.id_item = :itemId
+                  returning id_comment, id_item, author_id, text, created),
+              counted as (
+                  update item_summary s set comment_count = s.comment_count + 1
+                  from created c
+                  where s.id_item = c.id_item)
+              select c.id_comment as id, u.name as authorName, c.text as text, c.created as created
+              from created c
+              join users u on u.id_user = c.author_id
+            """, nativeQuery = true)
+    Optional<CommentRow> createIfItemExists(Long itemId, Long authorId, String text, LocalDateTime created);
 }
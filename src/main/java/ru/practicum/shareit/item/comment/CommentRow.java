@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв для ответа: ровно поля {@code CommentDto} и id для курсора.
+ * Интерфейс, а не record: native-запросы Spring Data отображает только в интерфейсные проекции.
+ */
+public interface CommentRow {
+
+    Long getId();
+
+    String getAuthorName();
+
+    String getText();
+
+    LocalDateTime getCreated();
+}
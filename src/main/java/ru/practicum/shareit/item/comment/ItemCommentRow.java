@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.comment;
+
+/**
+ * Отзыв из выборки по нескольким вещам сразу, см. {@link CommentRepository#findNewestByItems}.
+ */
+public interface ItemCommentRow extends CommentRow {
+
+    Long getItemId();
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -37,4 +38,8 @@ public class ItemDto {
     private BookingDto nextBooking;
     private List<CommentDto> comments = new ArrayList<>();
 
+    //всего отзывов; в comments — только последние, остальные отдаёт GET /items/{id}/comments
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long commentCount;
+
 }
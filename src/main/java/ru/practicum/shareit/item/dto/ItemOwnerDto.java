@@ -21,4 +21,5 @@ public class ItemOwnerDto {
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentDto> comments = new ArrayList<>();
+    private Long commentCount;
 }
@@ -6,6 +6,9 @@ import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.repository.ItemCardRow;
+import ru.practicum.shareit.item.repository.ItemRow;
+import ru.practicum.shareit.item.summary.OwnerItemRow;
 import ru.practicum.shareit.user.User;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
@@ -16,8 +19,20 @@ public interface ItemMapper {
     @Mapping(target = "lastBooking", ignore = true)
     @Mapping(target = "nextBooking", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
     ItemDto toItemDto(Item item);
 
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    ItemDto toItemDto(ItemRow row);
+
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    ItemDto toItemDto(ItemCardRow row);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "name", source = "dto.name")
     @Mapping(target = "request", ignore = true)
@@ -32,5 +47,12 @@ public interface ItemMapper {
     @Mapping(target = "lastBooking", ignore = true)
     @Mapping(target = "nextBooking", ignore = true)
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
     ItemOwnerDto toOwnerDto(Item item);
+
+    @Mapping(target = "id", source = "itemId")
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    ItemOwnerDto toOwnerDto(OwnerItemRow row);
 }
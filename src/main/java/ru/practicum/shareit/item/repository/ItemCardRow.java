@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Карточка вещи: поля {@code ItemDto} и число отзывов из item_summary одним запросом.
+ */
+public record ItemCardRow(Long id, String name, String description, Boolean available, Long ownerId,
+                          Long requestId, Long commentCount) {
+}
@@ -1,27 +1,66 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    List<Item> findByAvailableTrue();
+
+    //гидратация результатов поиска; порядок восстанавливает вызывающий
+    @Query("""
+              select new ru.practicum.shareit.item.repository.ItemRow(
+                  i.id, i.name, i.description, i.available, i.owner.id, i.request)
+              from Item i
+              where i.id in :ids
+            """)
+    List<ItemRow> findRowsByIdIn(Collection<Long> ids);
+
+    //карточка вещи вместе с числом отзывов из сводки
     @Query("""
-              select i
+              select new ru.practicum.shareit.item.repository.ItemCardRow(
+                  i.id, i.name, i.description, i.available, i.owner.id, i.request, s.commentCount)
               from Item i
-              where i.available = true
-                and (
-                  upper(i.name) like upper(concat('%', :text, '%'))
-                  or upper(i.description) like upper(concat('%', :text, '%'))
-                )
+                left join ItemSummary s on s.item = i
+              where i.id = :id
             """)
-    List<Item> search(String text);
+    Optional<ItemCardRow> findCardById(Long id);
+
+    //pattern — text с экранированными % и _ (PostgresItemSearch.likePattern), text — для ранжирования
+    @Query(value = """
+              select i.id_item
+              from items i
+              where i.available
+                and (i.name ilike concat('%', :pattern, '%') escape '\\'
+                  or i.description ilike concat('%', :pattern, '%') escape '\\')
+              order by greatest(word_similarity(:text, i.name), word_similarity(:text, i.description)) desc,
+                       i.id_item
+              limit :size offset :from
+            """, nativeQuery = true)
+    List<Long> searchRanked(String text, String pattern, int from, int size);
 
-    @EntityGraph(attributePaths = {"owner"})
-    Page<Item> findByOwner_Id(Long ownerId, Pageable pageable);
+    //анти-join по подтверждённым броням обслуживает GiST-индекс ограничения bookings_no_overlap
+    @Query(value = """
+              select i.id_item
+              from items i
+              where i.available
+                and (i.name ilike concat('%', :pattern, '%') escape '\\'
+                  or i.description ilike concat('%', :pattern, '%') escape '\\')
+                and not exists (select 1 from bookings b
+                                where b.id_item = i.id_item
+                                  and b.status = 'APPROVED'
+                                  and tsrange(b.start_time, b.end_time) && tsrange(:start, :end))
+              order by greatest(word_similarity(:text, i.name), word_similarity(:text, i.description)) desc,
+                       i.id_item
+              limit :size offset :from
+            """, nativeQuery = true)
+    List<Long> searchRankedFree(String text, String pattern, LocalDateTime start, LocalDateTime end, int from, int size);
 }
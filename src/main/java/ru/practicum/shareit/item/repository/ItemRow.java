@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Вещь для списков (поиск): поля {@code ItemDto} без сущности и прокси владельца.
+ */
+public record ItemRow(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+}
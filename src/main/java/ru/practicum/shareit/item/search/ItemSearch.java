@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту. Реализация выбирается свойством {@code shareit.search.backend}.
+ */
+public interface ItemSearch {
+
+    /**
+     * Страница идентификаторов найденных вещей, отсортированная по релевантности.
+     */
+    List<Long> search(String text, int from, int size);
+
+    /**
+     * То же, но только вещи без подтверждённых бронирований, пересекающих [start, end).
+     */
+    List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    default void put(Item item) {
+    }
+
+    default void putAll(Collection<Item> items) {
+        items.forEach(this::put);
+    }
+
+    default void remove(Long itemId) {
+    }
+
+    default void rebuild() {
+    }
+}
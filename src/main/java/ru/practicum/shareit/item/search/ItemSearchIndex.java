@@ -0,0 +1,252 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.notify.NotifyPublisher;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Триграммный индекс по названию и описанию доступных вещей.
+ * Кандидаты берутся пересечением списков триграмм запроса, затем проверяются вхождением подстроки,
+ * поэтому результат совпадает с прежним {@code like '%text%'}.
+ * Совпадения в названии ранжируются выше совпадений в описании, далее — по позиции вхождения.
+ * <p>
+ * Индекс свой у каждого инстанса. С {@code shareit.search.notify=true} изменения рассылаются через
+ * {@code NOTIFY item_search}, и остальные инстансы перечитывают эти вещи из БД, см. {@link ItemSearchListener}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "memory", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearch {
+
+    private static final int GRAM = 3;
+    static final String CHANNEL = "item_search";
+    static final String ALL = "*";
+    // предел payload в PostgreSQL — 8000 байт
+    private static final int MAX_PAYLOAD = 7_000;
+
+    private final ItemRepository itemRepository;
+    private final BookingIntervals bookingIntervals;
+    private final NotifyPublisher notifyPublisher;
+
+    @Value("${shareit.search.notify:false}")
+    private boolean notify;
+
+    // rebuild собирает новый индекс и подменяет ссылку целиком: поиск читает её один раз и не видит полупустых карт
+    private volatile Index index = new Index();
+    //не synchronized: rebuild держит блокировку на время запроса к БД, монитор закрепил бы виртуальный поток
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Override
+    public void rebuild() {
+        load();
+        publish(ALL);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        writeLock.lock();
+        try {
+            Index fresh = new Index();
+            itemRepository.findByAvailableTrue().forEach(fresh::put);
+            index = fresh;
+            log.info("load: indexed items={}, grams={}", fresh.entries.size(), fresh.postings.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Item item) {
+        putAll(List.of(item));
+    }
+
+    @Override
+    public void putAll(Collection<Item> items) {
+        writeLock.lock();
+        try {
+            items.forEach(index::put);
+        } finally {
+            writeLock.unlock();
+        }
+        publish(items.stream().map(Item::getId).toList());
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        writeLock.lock();
+        try {
+            index.remove(itemId);
+        } finally {
+            writeLock.unlock();
+        }
+        publish(List.of(itemId));
+    }
+
+    /**
+     * Вещи, изменённые на другом инстансе: перечитываются из БД, отсутствующие удаляются из индекса.
+     */
+    void refresh(Collection<Long> itemIds) {
+        writeLock.lock();
+        try {
+            var found = new HashMap<Long, Item>();
+            itemRepository.findAllById(itemIds).forEach(item -> found.put(item.getId(), item));
+            for (Long id : itemIds) {
+                Item item = found.get(id);
+                if (item != null) index.put(item);
+                else index.remove(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return ranked(text).stream()
+                .skip(from)
+                .limit(size)
+                .toList();
+    }
+
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<Long> ranked = ranked(text);
+        if (ranked.isEmpty()) return ranked;
+        Set<Long> busy = bookingIntervals.busyItems(ranked, start, end);
+        return ranked.stream()
+                .filter(id -> !busy.contains(id))
+                .skip(from)
+                .limit(size)
+                .toList();
+    }
+
+    private List<Long> ranked(String text) {
+        String query = normalize(text);
+        if (query.isEmpty()) return List.of();
+
+        Index index = this.index;
+        Map<Long, Entry> entries = index.entries;
+        Map<String, Set<Long>> postings = index.postings;
+        Collection<Long> candidates;
+        if (query.length() < GRAM) {
+            candidates = entries.keySet();
+        } else {
+            List<Set<Long>> lists = grams(query).stream()
+                    .map(g -> postings.getOrDefault(g, Set.of()))
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .toList();
+            Set<Long> smallest = lists.getFirst();
+            candidates = smallest.stream()
+                    .filter(id -> lists.stream().skip(1).allMatch(ids -> ids.contains(id)))
+                    .toList();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Long id : candidates) {
+            Entry entry = entries.get(id);
+            if (entry == null) continue;
+            int rank = entry.rank(query);
+            if (rank >= 0) hits.add(new Hit(id, rank));
+        }
+        return hits.stream()
+                .sorted(Comparator.comparingInt(Hit::rank).thenComparing(Hit::id))
+                .map(Hit::id)
+                .toList();
+    }
+
+    private void publish(Collection<Long> itemIds) {
+        if (!notify || itemIds.isEmpty()) return;
+        var payload = new StringBuilder();
+        for (Long id : itemIds) {
+            if (payload.length() > MAX_PAYLOAD) {
+                publish(payload.toString());
+                payload.setLength(0);
+            }
+            if (!payload.isEmpty()) payload.append(',');
+            payload.append(id);
+        }
+        publish(payload.toString());
+    }
+
+    private void publish(String payload) {
+        if (notify) notifyPublisher.publish(CHANNEL, payload);
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String s) {
+        if (s.length() < GRAM) return Set.of();
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= s.length(); i++) {
+            grams.add(s.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Hit(Long id, int rank) {
+    }
+
+    /**
+     * Карты индекса; меняются только под {@code writeLock}.
+     */
+    private static final class Index {
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        void put(Item item) {
+            remove(item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable())) return;
+
+            Entry entry = new Entry(normalize(item.getName()), normalize(item.getDescription()));
+            entries.put(item.getId(), entry);
+            for (String gram : entry.grams()) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(item.getId());
+            }
+        }
+
+        void remove(Long itemId) {
+            Entry old = entries.remove(itemId);
+            if (old == null) return;
+            for (String gram : old.grams()) {
+                postings.computeIfPresent(gram, (g, ids) -> {
+                    ids.remove(itemId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private record Entry(String name, String description) {
+        /**
+         * Меньше — релевантнее; -1, если вхождения нет.
+         */
+        int rank(String query) {
+            int inName = name.indexOf(query);
+            if (inName >= 0) return inName;
+            int inDescription = description.indexOf(query);
+            return inDescription >= 0 ? Integer.MAX_VALUE / 2 + inDescription : -1;
+        }
+
+        Set<String> grams() {
+            Set<String> all = new HashSet<>(ItemSearchIndex.grams(name));
+            all.addAll(ItemSearchIndex.grams(description));
+            return all;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.notify.NotifyHandler;
+
+import java.util.Arrays;
+
+/**
+ * Канал {@code item_search}: перечитывает в {@link ItemSearchIndex} вещи, изменённые на других инстансах.
+ * После переподключения слушателя индекс строится заново.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${shareit.search.backend:memory}' == 'memory' and ${shareit.search.notify:false}")
+public class ItemSearchListener implements NotifyHandler {
+
+    private final ItemSearchIndex index;
+
+    @Override
+    public String channel() {
+        return ItemSearchIndex.CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        if (ItemSearchIndex.ALL.equals(payload)) {
+            index.load();
+            return;
+        }
+        try {
+            index.refresh(Arrays.stream(payload.split(",")).map(Long::valueOf).toList());
+        } catch (NumberFormatException e) {
+            log.warn("listen: unexpected payload={}", payload);
+        }
+    }
+
+    @Override
+    public void resync() {
+        index.load();
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск на стороне PostgreSQL через pg_trgm: GIN-индексы по name и description обслуживают ilike,
+ * ранжирование по word_similarity.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "postgres")
+public class PostgresItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.searchRanked(text, likePattern(text), from, size);
+    }
+
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchRankedFree(text, likePattern(text), start, end, from, size);
+    }
+
+    /**
+     * Текст запроса как литерал для {@code ilike ... escape '\'}: {@code %} и {@code _} ищутся как символы.
+     */
+    static String likePattern(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,26 +1,39 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
 import ru.practicum.shareit.item.comment.CommentCreateDto;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public interface ItemService {
 
-    ItemDto create(Long ownerId, ItemCreateDto dto);
+    ItemDto create(Sharer owner, ItemCreateDto dto);
+
+    List<BatchResultDto> createBatch(Sharer owner, List<ItemCreateDto> dtos);
 
     ItemDto update(Long ownerId, Long itemId, ItemUpdateDto dto);
 
     ItemDto getById(Long requesterId, Long itemId);
 
-    List<ItemDto> search(Long requesterId, String text);
+    List<ItemDto> search(Long requesterId, String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     void delete(Long ownerID, Long itemId);
 
+    List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     List<ItemOwnerDto> findAllByOwnerWithBookings(Long ownerId, int from, int size);
 
-    CommentDto addComment(Long userId, Long itemId, CommentCreateDto dto);
+    CursorPage<ItemOwnerDto> findAllByOwnerWithBookingsAfter(Long ownerId, String after, int size);
+
+    CommentDto addComment(Sharer author, Long itemId, CommentCreateDto dto);
+
+    CursorPage<CommentDto> getComments(Long itemId, String after, int size);
 }
\ No newline at end of file
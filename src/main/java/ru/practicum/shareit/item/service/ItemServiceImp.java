@@ -1,51 +1,124 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.booking.availability.CompletedStays;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.dto.FreeSlotDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.GlobalExceptionHandler;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.item.comment.*;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemCardRow;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemRow;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.item.summary.OwnerItemRow;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.identity.Sharer;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.CursorPage;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_METRIC, histogram = true)
 @RequiredArgsConstructor
 public class ItemServiceImp implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemMapper itemMapper;
-    private final BookingRepository bookingRepository;
     private final CommentMapper commentMapper;
     private final CommentRepository commentRepo;
+    private final ItemSearch itemSearch;
+    private final ItemCache itemCache;
+    private final ItemSummaryRepository summaryRepository;
+    private final Validator validator;
+    private final BookingIntervals bookingIntervals;
+    private final BookingRepository bookingRepository;
+    private final CompletedStays completedStays;
+
+    @Value("${shareit.items.comments.preview-size:10}")
+    private int previewSize;
 
+    //вещь и её строка item_summary — одной транзакцией: список владельца соединяет их inner join
     @Override
-    public ItemDto create(Long ownerId, ItemCreateDto dto) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("owner not found"));
+    @Transactional
+    public ItemDto create(Sharer sharer, ItemCreateDto dto) {
+        User owner = userRepository.getReferenceById(sharer.id());
         if (dto.getName() == null || dto.getName().isBlank()) {
             throw new GlobalExceptionHandler.NotFoundException("name not found");
         }
         Item item = itemMapper.toItemFromCreateDto(dto, owner);
         Item saved = itemRepository.save(item);
+        summaryRepository.createFor(saved.getId());
+        itemSearch.put(saved);
         return itemMapper.toItemDto(saved);
     }
 
+    @Override
+    @Transactional
+    public List<BatchResultDto> createBatch(Sharer sharer, List<ItemCreateDto> dtos) {
+        if (dtos.size() > BatchResultDto.MAX_ROWS) {
+            throw new IllegalArgumentException("batch is limited to " + BatchResultDto.MAX_ROWS + " rows");
+        }
+        User owner = userRepository.getReferenceById(sharer.id());
+
+        var results = new BatchResultDto[dtos.size()];
+        var items = new ArrayList<Item>();
+        var indexes = new ArrayList<Integer>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ItemCreateDto dto = dtos.get(i);
+            if (dto == null) {
+                results[i] = BatchResultDto.failed(i, "empty row");
+                continue;
+            }
+            var violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                results[i] = BatchResultDto.failed(i, BatchResultDto.describe(violations));
+                continue;
+            }
+            items.add(itemMapper.toItemFromCreateDto(dto, owner));
+            indexes.add(i);
+        }
+
+        // идентификаторы берутся пулом из items_seq, поэтому Hibernate отправляет вставки JDBC-пакетами
+        var saved = itemRepository.saveAllAndFlush(items);
+        for (int k = 0; k < saved.size(); k++) {
+            results[indexes.get(k)] = BatchResultDto.ok(indexes.get(k), saved.get(k).getId());
+        }
+        if (!saved.isEmpty()) {
+            summaryRepository.createForAll(saved.stream().map(Item::getId).toList());
+            itemSearch.putAll(saved);
+        }
+        return List.of(results);
+    }
+
     @Override
     public ItemDto update(Long ownerId, Long itemId, ItemUpdateDto dto) {
         Item item = itemRepository.findById(itemId)
@@ -55,18 +128,27 @@ public class ItemServiceImp implements ItemService {
         }
         itemMapper.updateItemFromUpdateDto(dto, item);
         Item saved = itemRepository.save(item);
+        itemSearch.put(saved);
+        itemCache.evict(itemId);
         return itemMapper.toItemDto(saved);
     }
 
     @Override
+    @Cacheable(cacheNames = ItemCache.NAME, key = "#itemId")
     public ItemDto getById(Long requesterId, Long itemId) {
-        Item item = itemRepository.findById(itemId)
+        ItemCardRow card = itemRepository.findCardById(itemId)
                 .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("item not found"));
 
-        ItemDto dto = itemMapper.toItemDto(item);
+        ItemDto dto = itemMapper.toItemDto(card);
 
-        var comments = commentRepo.findByItem_IdOrderByCreatedAsc(itemId);
-        dto.setComments(commentMapper.toDto(comments));
+        // последние previewSize отзывов, в ответе — по возрастанию даты, как и раньше
+        var newest = commentRepo.findNewestByItem(itemId, PageRequest.ofSize(previewSize)).getContent();
+        dto.setComments(commentMapper.toRowDtos(newest.reversed()));
+        // строки сводки нет (вещь записана в обход сервиса, досоздаст backfill при старте):
+        // неполная страница — это все отзывы, иначе считаем
+        if (dto.getCommentCount() == null) {
+            dto.setCommentCount(newest.size() < previewSize ? newest.size() : commentRepo.countByItem_Id(itemId));
+        }
 
         dto.setLastBooking(null);
         dto.setNextBooking(null);
@@ -74,11 +156,42 @@ public class ItemServiceImp implements ItemService {
         return dto;
     }
 
+    @Override
+    public CursorPage<CommentDto> getComments(Long itemId, String after, int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        PageCursor cursor = after == null || after.isEmpty() ? null : PageCursor.decode(after);
+        if (cursor != null && cursor.start() == null) throw new IllegalArgumentException("invalid cursor: " + after);
+        var slice = cursor == null
+                ? commentRepo.findNewestByItem(itemId, PageRequest.ofSize(size))
+                : commentRepo.seekByItem(itemId, cursor.start(), cursor.id(), PageRequest.ofSize(size));
+        var rows = slice.getContent();
+        // пустая первая страница — либо отзывов нет, либо нет самой вещи
+        if (cursor == null && rows.isEmpty() && !itemRepository.existsById(itemId)) {
+            throw new GlobalExceptionHandler.NotFoundException("item not found");
+        }
+        String next = slice.hasNext() ? new PageCursor(rows.getLast().getCreated(), rows.getLast().getId()).encode() : null;
+        return new CursorPage<>(commentMapper.toRowDtos(rows), next);
+    }
 
     @Override
-    public List<ItemDto> search(Long requesterId, String text) {
+    public List<ItemDto> search(Long requesterId, String text, LocalDateTime start, LocalDateTime end,
+                                int from, int size) {
+        if ((start == null) != (end == null)) {
+            throw new IllegalArgumentException("start and end must be given together");
+        }
+        if (start != null && !start.isBefore(end)) throw new IllegalArgumentException("start must be before end");
         if (!StringUtils.hasText(text)) return List.of();
-        return itemRepository.search(text).stream()
+        var ids = start == null
+                ? itemSearch.search(text, from, size)
+                : itemSearch.searchFree(text, start, end, from, size);
+        if (ids.isEmpty()) return List.of();
+
+        // findAllById не сохраняет порядок, восстанавливаем ранжирование поиска
+        Map<Long, ItemRow> byId = itemRepository.findRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemRow::id, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(itemMapper::toItemDto)
                 .toList();
     }
@@ -91,94 +204,98 @@ public class ItemServiceImp implements ItemService {
             throw new IllegalStateException("only owner can delete item");
         }
         itemRepository.deleteById(itemId);
+        itemSearch.remove(itemId);
+        itemCache.evict(itemId);
+        bookingIntervals.dropItem(itemId);
+    }
+
+    @Override
+    public List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) throw new IllegalArgumentException("from must be before to");
+        // наличие вещи проверяем по кэшу getById, в БД идём только при промахе
+        ItemDto cached = itemCache.peek(itemId);
+        Boolean available = cached != null
+                ? cached.getAvailable()
+                : itemRepository.findById(itemId)
+                .map(Item::getAvailable)
+                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("item not found"));
+        if (!Boolean.TRUE.equals(available)) return List.of();
+        return bookingIntervals.freeSlots(itemId, from, to);
     }
 
     @Override
     public List<ItemOwnerDto> findAllByOwnerWithBookings(Long ownerId, int from, int size) {
         if (size <= 0) return List.of();
 
-        var page = itemRepository.findByOwner_Id(
-                ownerId, PageRequest.of(from / size, size));
-        if (page.isEmpty()) return List.of();
+        var page = summaryRepository.findByOwner(ownerId, PageRequest.of(from / size, size));
+        return toOwnerDtos(page.getContent());
+    }
 
-        var items = page.getContent();
-        var itemIds = items.stream()
-                .map(Item::getId)
-                .toList();
+    @Override
+    public CursorPage<ItemOwnerDto> findAllByOwnerWithBookingsAfter(Long ownerId, String after, int size) {
+        long afterId = after.isEmpty() ? 0L : PageCursor.decode(after).id();
+        var slice = summaryRepository.seekByOwner(ownerId, afterId, PageRequest.ofSize(size));
+        var dtos = toOwnerDtos(slice.getContent());
+        return new CursorPage<>(dtos, slice.hasNext() ? PageCursor.of(dtos.getLast().getId()).encode() : null);
+    }
 
-        var now = LocalDateTime.now();
-        var status = BookingStatus.APPROVED.name();
+    private List<ItemOwnerDto> toOwnerDtos(List<OwnerItemRow> rows) {
+        if (rows.isEmpty()) return List.of();
 
-        var last = bookingRepository.findLastByItemIds(itemIds, now, status)
-                .stream()
-                .collect(Collectors.toMap(
-                        b -> b.getItem().getId(),
-                        b -> b,
-                        (recordOne, recordTwo) -> recordOne));
-        var next = bookingRepository.findNextByItemIds(itemIds, now, status)
-                .stream()
-                .collect(Collectors.toMap(b -> b.getItem().getId(),
-                        b -> b,
-                        (recordOne, recordTwo) -> recordOne));
+        var itemIds = rows.stream()
+                .map(OwnerItemRow::itemId)
+                .toList();
 
-        var commentsByItemId = commentRepo.findByItemIdInOrderByCreatedAsc(itemIds)
+        // строки приходят новыми вперёд, в ответе — по возрастанию даты
+        var commentsByItemId = commentRepo.findNewestByItems(itemIds, previewSize)
                 .stream()
-                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
-
+                .collect(Collectors.groupingBy(ItemCommentRow::getItemId));
 
-        return items.stream().map(it -> {
-            var dto = itemMapper.toOwnerDto(it);
+        return rows.stream().map(row -> {
+            var dto = itemMapper.toOwnerDto(row);
 
-            var lb = last.get(it.getId());
-            if (lb != null) {
+            if (row.lastBookingId() != null) {
                 dto.setLastBooking(new BookingShortDto(
-                        lb.getId(),
-                        lb.getBooker().getId(),
-                        lb.getStart(),
-                        lb.getEnd()
+                        row.lastBookingId(),
+                        row.lastBookerId(),
+                        row.lastStart(),
+                        row.lastEnd()
                 ));
             }
-            var nb = next.get(it.getId());
-            if (nb != null) {
+            if (row.nextBookingId() != null) {
                 dto.setNextBooking(new BookingShortDto(
-                        nb.getId(),
-                        nb.getBooker().getId(),
-                        nb.getStart(),
-                        nb.getEnd()
+                        row.nextBookingId(),
+                        row.nextBookerId(),
+                        row.nextStart(),
+                        row.nextEnd()
                 ));
             }
-            var comms = commentsByItemId.getOrDefault(it.getId(), List.of());
-            dto.setComments(
-                    comms.stream().map(commentMapper::toDto).toList()
-            );
+            var comms = commentsByItemId.getOrDefault(row.itemId(), List.of());
+            dto.setComments(commentMapper.toRowDtos(comms.reversed()));
 
             return dto;
         }).toList();
     }
 
     @Override
-    public CommentDto addComment(Long userId, Long itemId, CommentCreateDto dto) {
+    public CommentDto addComment(Sharer author, Long itemId, CommentCreateDto dto) {
         if (dto == null || dto.getText() == null || dto.getText().isBlank()) {
             throw new IllegalStateException("комментарий пуст");
         }
-        var user = userRepository.findById(userId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("user not found"));
-        var item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("item not found"));
-
-        boolean allowed = bookingRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(
-                userId, itemId, BookingStatus.APPROVED, LocalDateTime.now());
-
-        if (!allowed) {
-            throw new IllegalStateException("пользователь не брал товар");
+        Long userId = author.id();
+        LocalDateTime now = LocalDateTime.now();
+        // право на отзыв — по набору в памяти; промах перепроверяем в БД: бронь могли подтвердить на другом инстансе
+        if (!completedStays.contains(userId, itemId, now)) {
+            if (!bookingRepository.existsCompletedStay(userId, itemId, now)) {
+                throw itemRepository.existsById(itemId)
+                        ? new IllegalStateException("пользователь не брал товар")
+                        : new GlobalExceptionHandler.NotFoundException("item not found");
+            }
+            completedStays.record(userId, itemId);
         }
-
-        var comment = new Comment();
-        comment.setText(dto.getText().trim());
-        comment.setItem(item);
-        comment.setAuthor(user);
-        comment.setCreated(LocalDateTime.now());
-
-        return commentMapper.toDto(commentRepo.save(comment));
+        var created = commentRepo.createIfItemExists(itemId, userId, dto.getText().trim(), now)
+                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("item not found"));
+        itemCache.evict(itemId);
+        return commentMapper.toDto(created);
     }
 }
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.summary;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Денормализованная сводка по вещи: последнее и ближайшее подтверждённые бронирования и число отзывов.
+ * Поддерживается {@link ItemSummaryRepository}, читается только списком вещей владельца.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "item_summary")
+public class ItemSummary {
+
+    @Id
+    private Long itemId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_item")
+    private Item item;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+
+    @Column(name = "comment_count")
+    private long commentCount;
+}
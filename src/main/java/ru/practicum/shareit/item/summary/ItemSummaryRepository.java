@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//запросы только читают; изменяющие методы переопределяют это своим @Transactional
+@Transactional(readOnly = true)
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+
+    //пересчёт last/next по подтверждённым бронированиям; comment_count ведётся отдельно
+    String REFRESH = """
+              insert into item_summary (id_item, last_booking_id, last_booker_id, last_start, last_end,
+                                        next_booking_id, next_booker_id, next_start, next_end, comment_count)
+              select i.id_item, l.id_booking, l.id_booker, l.start_time, l.end_time,
+                     n.id_booking, n.id_booker, n.start_time, n.end_time,
+                     (select count(*) from comments c where c.id_item = i.id_item)
+              from items i
+              left join lateral (
+                  select b.id_booking, b.id_booker, b.start_time, b.end_time
+                  from bookings b
+                  where b.id_item = i.id_item and b.status = 'APPROVED' and b.start_time < :now
+                  order by b.end_time desc
+                  limit 1) l on true
+              left join lateral (
+                  select b.id_booking, b.id_booker, b.start_time, b.end_time
+                  from bookings b
+                  where b.id_item = i.id_item and b.status = 'APPROVED' and b.start_time > :now
+                  order by b.start_time
+                  limit 1) n on true
+            """;
+
+    String UPSERT = """
+              on conflict (id_item) do update set
+                last_booking_id = excluded.last_booking_id,
+                last_booker_id = excluded.last_booker_id,
+                last_start = excluded.last_start,
+                last_end = excluded.last_end,
+                next_booking_id = excluded.next_booking_id,
+                next_booker_id = excluded.next_booker_id,
+                next_start = excluded.next_start,
+                next_end = excluded.next_end
+            """;
+
+    @Query("""
+              select new ru.practicum.shareit.item.summary.OwnerItemRow(
+                  i.id, i.name, i.description, i.available,
+                  s.lastBookingId, s.lastBookerId, s.lastStart, s.lastEnd,
+                  s.nextBookingId, s.nextBookerId, s.nextStart, s.nextEnd,
+                  s.commentCount)
+              from ItemSummary s
+              join s.item i
+              where i.owner.id = :ownerId
+              order by i.id
+            """)
+    Slice<OwnerItemRow> findByOwner(Long ownerId, Pageable p);
+
+    @Query("""
+              select new ru.practicum.shareit.item.summary.OwnerItemRow(
+                  i.id, i.name, i.description, i.available,
+                  s.lastBookingId, s.lastBookerId, s.lastStart, s.lastEnd,
+                  s.nextBookingId, s.nextBookerId, s.nextStart, s.nextEnd,
+                  s.commentCount)
+              from ItemSummary s
+              join s.item i
+              where i.owner.id = :ownerId and i.id > :afterId
+              order by i.id
+            """)
+    Slice<OwnerItemRow> seekByOwner(Long ownerId, Long afterId, Pageable p);
+
+    @Modifying
+    @Transactional
+    @Query(value = "insert into item_summary (id_item) values (:itemId) on conflict do nothing", nativeQuery = true)
+    void createFor(Long itemId);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+              insert into item_summary (id_item)
+              select i.id_item from items i where i.id_item in (:itemIds)
+              on conflict do nothing
+            """, nativeQuery = true)
+    void createForAll(List<Long> itemIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = REFRESH + " where i.id_item = :itemId " + UPSERT, nativeQuery = true)
+    void refresh(Long itemId, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = REFRESH + " where i.id_item in (:itemIds) " + UPSERT, nativeQuery = true)
+    void refreshItems(List<Long> itemIds, LocalDateTime now);
+
+    //ближайшее бронирование началось — переносим его в last
+    @Modifying
+    @Transactional
+    @Query(value = REFRESH + """
+              where i.id_item in (select s.id_item from item_summary s where s.next_start <= :now)
+            """ + UPSERT, nativeQuery = true)
+    int refreshDue(LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = REFRESH + """
+              where not exists (select 1 from item_summary s where s.id_item = i.id_item)
+            """ + UPSERT, nativeQuery = true)
+    int refreshMissing(LocalDateTime now);
+
+    //вещи, в сводке которых участвуют подтверждённые брони или отзывы пользователя
+    @Query(value = """
+              select b.id_item from bookings b where b.id_booker = :userId and b.status = 'APPROVED'
+              union
+              select c.id_item from comments c where c.author_id = :userId
+            """, nativeQuery = true)
+    List<Long> findItemsTouchedBy(Long userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+              update item_summary s
+              set comment_count = (select count(*) from comments c where c.id_item = s.id_item)
+              where s.id_item in (:itemIds)
+            """, nativeQuery = true)
+    void recountComments(List<Long> itemIds);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSummaryScheduler {
+
+    private final ItemSummaryRepository summaryRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int created = summaryRepository.refreshMissing(LocalDateTime.now());
+        log.info("backfill: created summaries={}", created);
+        advance();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.summary.refresh-ms:1000}")
+    public void advance() {
+        int refreshed = summaryRepository.refreshDue(LocalDateTime.now());
+        if (refreshed > 0) log.debug("advance: refreshed summaries={}", refreshed);
+    }
+}
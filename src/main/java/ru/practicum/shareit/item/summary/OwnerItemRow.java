@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.summary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка вещей владельца: поля вещи и её сводки одним запросом, без сущностей в контексте.
+ */
+public record OwnerItemRow(Long itemId, String name, String description, Boolean available,
+                           Long lastBookingId, Long lastBookerId, LocalDateTime lastStart, LocalDateTime lastEnd,
+                           Long nextBookingId, Long nextBookerId, LocalDateTime nextStart, LocalDateTime nextEnd,
+                           Long commentCount) {
+}
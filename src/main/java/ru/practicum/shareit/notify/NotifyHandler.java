@@ -0,0 +1,16 @@
+package ru.practicum.shareit.notify;
+
+/**
+ * Обработчик уведомлений одного канала {@code LISTEN/NOTIFY}, см. {@link PgNotifyListener}.
+ */
+public interface NotifyHandler {
+
+    String channel();
+
+    void handle(String payload);
+
+    /**
+     * Вызывается после переподключения: уведомления за время обрыва потеряны, локальное состояние нужно сбросить.
+     */
+    void resync();
+}
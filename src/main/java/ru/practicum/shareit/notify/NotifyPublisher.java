@@ -0,0 +1,39 @@
+package ru.practicum.shareit.notify;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Отправка {@code NOTIFY} остальным инстансам, приём — {@link PgNotifyListener}.
+ * Внутри транзакции pg_notify доставляется слушателям только после коммита.
+ * <p>
+ * Payload помечается id инстанса: слушатель получает и собственные уведомления, а их изменения
+ * отправитель уже применил у себя.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotifyPublisher {
+
+    static final char SEPARATOR = '|';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String instance = UUID.randomUUID().toString();
+
+    public void publish(String channel, String payload) {
+        jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, channel, instance + SEPARATOR + payload);
+    }
+
+    /**
+     * Payload без метки; null — уведомление отправил этот инстанс. Сообщение без метки отдаётся как есть.
+     */
+    String foreign(String message) {
+        int at = message.indexOf(SEPARATOR);
+        if (at < 0) return message;
+        return message.regionMatches(0, instance, 0, at) && at == instance.length()
+                ? null
+                : message.substring(at + 1);
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.notify;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Один поток с {@code LISTEN} на каналы всех {@link NotifyHandler}. Соединение отдельное, мимо пула:
+ * слушатель держит его всё время работы и не должен занимать место запросов в Hikari.
+ * При обрыве переподключается и вызывает {@link NotifyHandler#resync()} у всех обработчиков.
+ * Уведомления, отправленные этим же инстансом через {@link NotifyPublisher}, пропускаются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PgNotifyListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 1_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final List<NotifyHandler> handlers;
+    private final NotifyPublisher publisher;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        running = true;
+        if (handlers.isEmpty()) return;
+        worker = new Thread(this::listen, "pg-notify-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) worker.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        Map<String, NotifyHandler> byChannel = handlers.stream()
+                .collect(Collectors.toMap(NotifyHandler::channel, Function.identity()));
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement st = connection.createStatement()) {
+                    for (String channel : byChannel.keySet()) {
+                        st.execute("LISTEN " + channel);
+                    }
+                }
+                // сброс после LISTEN: всё, что изменится дальше, придёт уведомлением
+                if (reconnect) handlers.forEach(NotifyHandler::resync);
+                reconnect = true;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        dispatch(byChannel.get(n.getName()), n);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("listen: connection lost, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(NotifyHandler handler, PGNotification n) {
+        if (handler == null) return;
+        String payload = publisher.foreign(n.getParameter());
+        if (payload == null) return;
+        try {
+            handler.handle(payload);
+        } catch (RuntimeException e) {
+            log.warn("listen: channel={} payload={} failed: {}", n.getName(), n.getParameter(), e.getMessage());
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @Table(name = "itemRequests")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
     @Column(name = "id_request")
     private Long id;
 
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestCreateDto;
+import ru.practicum.shareit.sql.SqlBudget;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.user.identity.SharerUser;
 
 import java.util.List;
 
@@ -14,23 +19,32 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestServiceImpl service;
-    private static final String USER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ItemRequestDto create(@RequestHeader(USER) Long userId,
+    public ItemRequestDto create(@SharerUser Sharer requestor,
                                  @Valid @RequestBody RequestCreateDto dto) {
-        return service.create(userId, dto);
+        return service.create(requestor, dto);
     }
 
+    @SqlBudget(1)
     @GetMapping("/{requestId}")
-    public ItemRequestDto get(@RequestHeader(USER) Long userId,
+    public ItemRequestDto get(@SharerUser Sharer user,
                               @PathVariable Long requestId) {
-        return service.getById(userId, requestId);
+        return service.getById(user, requestId);
     }
 
+    @SqlBudget(1)
     @GetMapping
-    public List<ItemRequestDto> own(@RequestHeader(USER) Long userId) {
-        return service.getOwn(userId);
+    public List<ItemRequestDto> own(@SharerUser Sharer user) {
+        return service.getOwn(user);
+    }
+
+    @SqlBudget(1)
+    @GetMapping("/all")
+    public List<ItemRequestDto> all(@SharerUser Sharer user,
+                                    @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                    @RequestParam(defaultValue = "20") @Positive int size) {
+        return service.getAll(user, from, size);
     }
 
 
@@ -3,15 +3,18 @@ package ru.practicum.shareit.request;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestCreateDto;
+import ru.practicum.shareit.user.identity.Sharer;
 
 import java.util.List;
 
 @Service
 public interface ItemRequestService {
-    public ItemRequestDto create(Long userId, RequestCreateDto dto);
+    public ItemRequestDto create(Sharer requestor, RequestCreateDto dto);
 
-    public ItemRequestDto getById(Long userId, Long requestId);
+    public ItemRequestDto getById(Sharer user, Long requestId);
 
-    public List<ItemRequestDto> getOwn(Long userId);
+    public List<ItemRequestDto> getOwn(Sharer user);
+
+    public List<ItemRequestDto> getAll(Sharer user, int from, int size);
 
 }
@@ -1,18 +1,22 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.GlobalExceptionHandler;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.RequestCreateDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.identity.Sharer;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_METRIC, histogram = true)
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final RequestRepository repo;
@@ -20,27 +24,27 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestMapper mapper;
 
     @Override
-    public ItemRequestDto create(Long userId, RequestCreateDto dto) {
-        User requestor = userRepo.findById(userId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("user not found"));
+    public ItemRequestDto create(Sharer sharer, RequestCreateDto dto) {
+        User requestor = userRepo.getReferenceById(sharer.id());
         ItemRequest entity = mapper.toEntity(dto, requestor);
         return mapper.toDto(repo.save(entity));
     }
 
     @Override
-    public ItemRequestDto getById(Long userId, Long requestId) {
-        userRepo.findById(userId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("user not found"));
+    public ItemRequestDto getById(Sharer user, Long requestId) {
         ItemRequest r = repo.findById(requestId)
                 .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("request not found"));
         return mapper.toDto(r);
     }
 
     @Override
-    public List<ItemRequestDto> getOwn(Long userId) {
-        userRepo.findById(userId)
-                .orElseThrow(() -> new GlobalExceptionHandler.NotFoundException("user not found"));
-        return mapper.toDto(repo.findByRequestorId(userId));
+    public List<ItemRequestDto> getOwn(Sharer user) {
+        return mapper.toDto(repo.findByRequestorId(user.id()));
+    }
+
+    @Override
+    public List<ItemRequestDto> getAll(Sharer user, int from, int size) {
+        return mapper.toDto(repo.findOthers(user.id(), from, size));
     }
 
 }
@@ -0,0 +1,423 @@
+package ru.practicum.shareit.request.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Журнал запросов на диске: сегменты, отображённые в память, только дописываются; снимок состояния
+ * позволяет удалить прочитанные сегменты. Позиция в журнале (LSN) — смещение от начала первого сегмента,
+ * имя сегмента — его начальная позиция, имя снимка — позиция, до которой он покрывает журнал.
+ * <p>
+ * Запись: длина, CRC32C и данные запроса. Оборванная последняя запись при восстановлении отбрасывается.
+ * С {@code fsync} запись считается сохранённой после сброса на диск; сбрасывает отдельный поток,
+ * и все записи, накопившиеся за время предыдущего сброса, уходят одним {@code force}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.requests.store", havingValue = "journal")
+public class RequestLog implements AutoCloseable {
+
+    private static final String SEGMENT = ".log";
+    private static final String SNAPSHOT = ".snap";
+    private static final int HEADER = 8;
+    // остаток сегмента не используется, журнал продолжается в следующем
+    private static final int ROLL = -1;
+    private static final long SNAPSHOT_MAGIC = 0x5348524551534E50L;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final long snapshotAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private MappedByteBuffer segment;
+    private long base;
+    private int position;
+    private long synced;
+    private UncheckedIOException failure;
+    private boolean closed;
+    private Thread flusher;
+    private volatile long snapshotLsn;
+
+    public RequestLog(@Value("${shareit.requests.journal.dir:data/requests}") String dir,
+                      @Value("${shareit.requests.journal.segment-size:64MB}") DataSize segmentSize,
+                      @Value("${shareit.requests.journal.fsync:true}") boolean fsync,
+                      @Value("${shareit.requests.journal.snapshot-after:64MB}") DataSize snapshotAfter) {
+        this.dir = Path.of(dir);
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.fsync = fsync;
+        this.snapshotAfter = snapshotAfter.toBytes();
+    }
+
+    /**
+     * Читает последний снимок и журнал после него, отдавая запросы в порядке записи, и открывает журнал на запись.
+     * Один и тот же id может прийти несколько раз — побеждает последний.
+     */
+    public void recover(Consumer<ItemRequest> apply) {
+        try {
+            Files.createDirectories(dir);
+            // недописанный снимок от прошлого запуска
+            for (Path tmp : files(SNAPSHOT + ".tmp")) Files.delete(tmp);
+            List<Path> snapshots = files(SNAPSHOT);
+            long from = snapshots.isEmpty() ? 0 : readSnapshot(snapshots.getLast(), apply);
+
+            List<Path> segments = files(SEGMENT);
+            long end = from;
+            Path last = null;
+            int lastOffset = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                Path file = segments.get(i);
+                long start = lsnOf(file);
+                long size = Files.size(file);
+                if (start + size <= from) continue;
+                if (start > end) throw new IllegalStateException("разрыв журнала запросов перед " + file);
+                int offset = replay(file, (int) Math.max(0, from - start), apply);
+                if (offset < 0) {
+                    end = start + size;
+                    continue;
+                }
+                if (i + 1 < segments.size()) {
+                    throw new IllegalStateException("журнал запросов повреждён: " + file + ", позиция " + offset);
+                }
+                last = file;
+                lastOffset = offset;
+                end = start + offset;
+            }
+            snapshotLsn = from;
+
+            lock.lock();
+            try {
+                if (last != null) {
+                    segment = map(last, Files.size(last));
+                    base = lsnOf(last);
+                    position = lastOffset;
+                } else {
+                    segment = map(dir.resolve(name(end, SEGMENT)), segmentSize);
+                    base = end;
+                    position = 0;
+                }
+                synced = end;
+            } finally {
+                lock.unlock();
+            }
+            if (fsync) {
+                flusher = Thread.ofPlatform().daemon().name("request-log-flusher").start(this::flushLoop);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("не удалось открыть журнал запросов в " + dir, e);
+        }
+    }
+
+    /**
+     * Дописывает запрос и возвращает позицию конца записи; сохранность на диске — через {@link #await}.
+     */
+    public long append(ItemRequest request) {
+        byte[] record = encode(request);
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("журнал запросов закрыт");
+            if (failure != null) throw new UncheckedIOException("журнал запросов недоступен", failure.getCause());
+            if (record.length > segment.capacity() - position) roll(record.length);
+            segment.put(position, record);
+            position += record.length;
+            appended.signal();
+            return base + position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ждёт, пока журнал до {@code lsn} будет сброшен на диск. Без fsync возвращается сразу.
+     */
+    public void await(long lsn) {
+        if (!fsync) return;
+        lock.lock();
+        try {
+            while (synced < lsn) {
+                if (failure != null) throw new UncheckedIOException("журнал запросов не сброшен на диск", failure.getCause());
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long end() {
+        lock.lock();
+        try {
+            return base + position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean snapshotDue() {
+        return end() - snapshotLsn >= snapshotAfter;
+    }
+
+    /**
+     * Записывает снимок, покрывающий журнал до {@code lsn}, и удаляет ставшие ненужными сегменты и снимки.
+     * {@code state} должен содержать все записи до {@code lsn}; более поздние допустимы — журнал их повторит.
+     */
+    public synchronized void snapshot(long lsn, Iterable<ItemRequest> state) {
+        Path target = dir.resolve(name(lsn, SNAPSHOT));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        try {
+            int count = 0;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeLong(SNAPSHOT_MAGIC);
+                out.writeLong(lsn);
+                for (ItemRequest request : state) {
+                    out.write(encode(request));
+                    count++;
+                }
+                out.writeInt(0);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+            snapshotLsn = lsn;
+
+            for (Path old : files(SNAPSHOT)) {
+                if (lsnOf(old) < lsn) Files.deleteIfExists(old);
+            }
+            List<Path> segments = files(SEGMENT);
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (lsnOf(segments.get(i + 1)) <= lsn) Files.deleteIfExists(segments.get(i));
+            }
+            log.info("снимок запросов: записей={}, позиция={}", count, lsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("не удалось записать снимок запросов " + target, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            if (segment != null) segment.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long from;
+            long to;
+            long start;
+            lock.lock();
+            try {
+                while (!closed && synced >= base + position) appended.awaitUninterruptibly();
+                if (synced >= base + position) return;
+                target = segment;
+                start = base;
+                to = base + position;
+                from = Math.max(synced, base);
+            } finally {
+                lock.unlock();
+            }
+            UncheckedIOException error = null;
+            try {
+                target.force((int) (from - start), (int) (to - from));
+            } catch (UncheckedIOException e) {
+                log.error("сброс журнала запросов на диск не удался", e);
+                error = e;
+            }
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    synced = Math.max(synced, to);
+                }
+                flushed.signalAll();
+                if (error != null) return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // под lock
+    private void roll(int needed) {
+        if (needed > segmentSize) throw new IllegalArgumentException("запрос больше сегмента журнала");
+        if (segment.capacity() - position >= Integer.BYTES) segment.putInt(position, ROLL);
+        // старый сегмент целиком на диске до первой записи в новый
+        if (fsync) segment.force();
+        long next = base + segment.capacity();
+        try {
+            segment = map(dir.resolve(name(next, SEGMENT)), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("не удалось создать сегмент журнала запросов", e);
+        }
+        base = next;
+        position = 0;
+        if (fsync) {
+            synced = Math.max(synced, next);
+            flushed.signalAll();
+        }
+    }
+
+    /**
+     * Применяет записи сегмента с {@code offset}; возвращает позицию после последней целой записи
+     * или -1, если сегмент закрыт и журнал продолжается в следующем.
+     */
+    private static int replay(Path file, int offset, Consumer<ItemRequest> apply) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int pos = offset;
+        while (true) {
+            if (buffer.capacity() - pos < Integer.BYTES) return -1;
+            int length = buffer.getInt(pos);
+            if (length == ROLL) return -1;
+            if (length <= 0 || length > buffer.capacity() - pos - HEADER) return pos;
+            ByteBuffer payload = buffer.slice(pos + HEADER, length);
+            if (checksum(payload) != buffer.getInt(pos + Integer.BYTES)) return pos;
+            apply.accept(decode(payload));
+            pos += HEADER + length;
+        }
+    }
+
+    private static long readSnapshot(Path file, Consumer<ItemRequest> apply) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readLong() != SNAPSHOT_MAGIC) throw new IllegalStateException("не снимок запросов: " + file);
+            long lsn = in.readLong();
+            byte[] payload = new byte[256];
+            int length;
+            while ((length = in.readInt()) != 0) {
+                int sum = in.readInt();
+                if (length > payload.length) payload = new byte[Math.max(length, payload.length * 2)];
+                in.readFully(payload, 0, length);
+                ByteBuffer buffer = ByteBuffer.wrap(payload, 0, length).slice();
+                if (checksum(buffer) != sum) throw new IllegalStateException("снимок запросов повреждён: " + file);
+                apply.accept(decode(buffer));
+            }
+            return lsn;
+        } catch (EOFException e) {
+            throw new IllegalStateException("снимок запросов оборван: " + file, e);
+        }
+    }
+
+    private static byte[] encode(ItemRequest r) {
+        byte[] text = r.getDescription() == null ? null : r.getDescription().getBytes(StandardCharsets.UTF_8);
+        int length = 3 * Long.BYTES + 2 * Integer.BYTES + (text == null ? 0 : text.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + length);
+        buffer.putInt(length).putInt(0);
+        buffer.putLong(r.getId());
+        buffer.putLong(r.getRequestor() == null ? NONE : r.getRequestor());
+        LocalDateTime created = r.getCreated();
+        buffer.putLong(created == null ? NONE : created.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(created == null ? 0 : created.getNano());
+        buffer.putInt(text == null ? -1 : text.length);
+        if (text != null) buffer.put(text);
+        buffer.putInt(Integer.BYTES, checksum(buffer.slice(HEADER, length)));
+        return buffer.array();
+    }
+
+    private static ItemRequest decode(ByteBuffer b) {
+        long id = b.getLong();
+        long requestor = b.getLong();
+        long seconds = b.getLong();
+        int nanos = b.getInt();
+        int textLength = b.getInt();
+        String description = null;
+        if (textLength >= 0) {
+            byte[] text = new byte[textLength];
+            b.get(text);
+            description = new String(text, StandardCharsets.UTF_8);
+        }
+        return new ItemRequest(id, description, requestor == NONE ? null : requestor,
+                seconds == NONE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        var crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return new ArrayList<>(files
+                    .filter(f -> f.getFileName().toString().endsWith(suffix))
+                    .sorted(Comparator.comparingLong(RequestLog::lsnOf))
+                    .toList());
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // не все ФС позволяют открыть каталог; переименование всё равно атомарно
+            log.debug("fsync каталога {} недоступен: {}", dir, e.getMessage());
+        }
+    }
+
+    private static String name(long lsn, String suffix) {
+        return String.format("%020d%s", lsn, suffix);
+    }
+
+    private static long lsnOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+}
@@ -12,4 +12,7 @@ public interface RequestRepository {
 
     List<ItemRequest> findByRequestorId(Long userid);
 
+    //чужие запросы, новые сначала
+    List<ItemRequest> findOthers(Long userId, int from, int size);
+
 }
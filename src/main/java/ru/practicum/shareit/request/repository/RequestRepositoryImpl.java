@@ -1,38 +1,181 @@
 package ru.practicum.shareit.request.repository;
 
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.ItemRequest;
 
-import java.util.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Запросы в памяти: основная карта по id и два индекса в порядке «новые сначала» —
+ * по автору и общий. Чтение без блокировок; запись одного id сериализует {@code compute} основной карты,
+ * поэтому индексы не расходятся с ней и при параллельных {@code save}.
+ * <p>
+ * С {@code shareit.requests.store=journal} каждая запись сначала дописывается в {@link RequestLog}, а при старте
+ * состояние восстанавливается из его снимка и журнала. Запись в журнал идёт до {@code compute}, и параллельные
+ * {@code save} одного id могут дойти до карты не в том порядке, что до журнала, — поэтому в карте остаётся версия
+ * с большей позицией в журнале: та же, что победит при восстановлении.
+ */
+@Slf4j
 @Repository
 public class RequestRepositoryImpl implements RequestRepository {
 
-    private final Map<Long, ItemRequest> store = new ConcurrentHashMap<>();
+    private final Map<Long, Stored> store = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentNavigableMap<Key, ItemRequest>> byRequestor = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Key, ItemRequest> feed = new ConcurrentSkipListMap<>();
     private final AtomicLong seq = new AtomicLong(0);
+    // null — только память
+    private final RequestLog journal;
+    // записи — под чтением, метка снимка — под записью: к метке всё, что до неё в журнале, уже в карте
+    private final ReadWriteLock writes = new ReentrantReadWriteLock();
+
+    public RequestRepositoryImpl(@Nullable RequestLog journal) {
+        this.journal = journal;
+    }
+
+    @PostConstruct
+    public void recover() {
+        if (journal == null) return;
+        long started = System.nanoTime();
+        journal.recover(this::restore);
+        log.info("восстановлено запросов={} за {} мс", store.size(), (System.nanoTime() - started) / 1_000_000);
+    }
 
     @Override
-    public ItemRequest save(ItemRequest user) {
-        if (user.getId() == null) {
-            user.setId(seq.getAndIncrement());
+    public ItemRequest save(ItemRequest request) {
+        if (request.getId() == null) {
+            request.setId(seq.incrementAndGet());
+        }
+        // в индексах лежит копия: изменение переданного объекта не должно сдвигать ключи
+        ItemRequest stored = copy(request);
+        long end;
+        writes.readLock().lock();
+        try {
+            end = journal == null ? 0 : journal.append(stored);
+            apply(new Stored(stored, end));
+        } finally {
+            writes.readLock().unlock();
         }
-        store.put(user.getId(), user);
-        return store.get(user.getId());
+        if (journal != null) journal.await(end);
+        return copy(stored);
+    }
+
+    /**
+     * Снимок состояния, когда журнал с прошлого снимка вырос на {@code shareit.requests.journal.snapshot-after}.
+     */
+    @Scheduled(fixedDelayString = "${shareit.requests.journal.snapshot-check-ms:10000}")
+    public void compact() {
+        if (journal == null || !journal.snapshotDue()) return;
+        long lsn;
+        writes.writeLock().lock();
+        try {
+            lsn = journal.end();
+        } finally {
+            writes.writeLock().unlock();
+        }
+        // карта может уже содержать записи после lsn — при восстановлении журнал повторит их поверх снимка
+        journal.snapshot(lsn, () -> store.values().stream().map(Stored::request).iterator());
     }
 
     @Override
     public Optional<ItemRequest> findById(Long id) {
-        var request = store.get(id);
-        return Optional.ofNullable(request);
+        return Optional.ofNullable(store.get(id)).map(e -> copy(e.request()));
     }
 
     @Override
     public List<ItemRequest> findByRequestorId(Long requestorId) {
-        return store.values().stream()
-                .filter(it -> it.getRequestor() != null && Objects.equals(it.getRequestor(), requestorId))
-                .sorted(Comparator.comparing(ItemRequest::getCreated).reversed())
-                .toList();
+        var own = byRequestor.get(requestorId);
+        if (own == null) return List.of();
+        return own.values().stream().map(RequestRepositoryImpl::copy).toList();
+    }
+
+    @Override
+    public List<ItemRequest> findOthers(Long userId, int from, int size) {
+        var page = new ArrayList<ItemRequest>();
+        int skipped = 0;
+        for (ItemRequest r : feed.values()) {
+            if (page.size() == size) break;
+            if (Objects.equals(r.getRequestor(), userId)) continue;
+            if (skipped++ < from) continue;
+            page.add(copy(r));
+        }
+        return page;
+    }
+
+    private void restore(ItemRequest r) {
+        // журнал отдаёт записи по порядку — каждая следующая новее
+        apply(new Stored(r, 0));
+        seq.accumulateAndGet(r.getId(), Math::max);
+    }
+
+    private void apply(Stored next) {
+        store.compute(next.request().getId(), (id, old) -> {
+            // более поздняя запись журнала уже в карте — эта устарела
+            if (old != null && old.lsn() > next.lsn()) return old;
+            if (old != null) unindex(old.request());
+            index(next.request());
+            return next;
+        });
+    }
+
+    private void index(ItemRequest r) {
+        Key key = Key.of(r);
+        feed.put(key, r);
+        if (r.getRequestor() != null) {
+            byRequestor.computeIfAbsent(r.getRequestor(), u -> new ConcurrentSkipListMap<>()).put(key, r);
+        }
+    }
+
+    private void unindex(ItemRequest r) {
+        Key key = Key.of(r);
+        feed.remove(key);
+        if (r.getRequestor() != null) {
+            var own = byRequestor.get(r.getRequestor());
+            if (own != null) own.remove(key);
+        }
+    }
+
+    private static ItemRequest copy(ItemRequest r) {
+        return new ItemRequest(r.getId(), r.getDescription(), r.getRequestor(), r.getCreated());
+    }
+
+    /**
+     * Запрос и позиция конца его записи в журнале; без журнала — 0.
+     */
+    private record Stored(ItemRequest request, long lsn) {
+    }
+
+    /**
+     * Ключ индексов: сначала новые, при равном времени — больший id.
+     */
+    private record Key(LocalDateTime created, long id) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator
+                .comparing(Key::created, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(Comparator.comparingLong(Key::id).reversed());
+
+        static Key of(ItemRequest r) {
+            return new Key(r.getCreated(), r.getId());
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
     }
 }
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Обёртка пула, которая считает выполнения запросов для {@link SqlStatementCounter}. Считается каждый
+ * execute*, пакет executeBatch — один запрос. Ловит и Hibernate, и JdbcTemplate; COPY через
+ * {@code unwrap(PGConnection.class)} идёт мимо обёртки и не считается.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    public CountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        Object proxy = Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                new Handler(target));
+        return type.cast(proxy);
+    }
+
+    private record Handler(Object target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (target instanceof Statement && name.startsWith("execute")) {
+                SqlStatementCounter.increment();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            return switch (name) {
+                case "createStatement" -> wrap(Statement.class, (Statement) result);
+                case "prepareStatement" -> wrap(PreparedStatement.class, (PreparedStatement) result);
+                case "prepareCall" -> wrap(CallableStatement.class, (CallableStatement) result);
+                default -> result;
+            };
+        }
+    }
+}
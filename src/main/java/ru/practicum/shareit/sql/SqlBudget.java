@@ -0,0 +1,17 @@
+package ru.practicum.shareit.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Сколько SQL-запросов может выполнить один вызов маршрута. Превышение ловит {@link SqlBudgetFilter}:
+ * в режиме log — предупреждение, в режиме fail — ответ 500.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int value();
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
+
+/**
+ * Режим fail: проверка бюджета перед записью тела ответа, когда все запросы к БД уже выполнены,
+ * а ответ ещё не отправлен. Маршруты без тела (DELETE) проверяет только лог {@link SqlBudgetFilter}.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "shareit.sql.count", havingValue = "true")
+public class SqlBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean fail;
+
+    public SqlBudgetAdvice(@Value("${shareit.sql.budget-mode:log}") String mode) {
+        this.fail = "fail".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return fail && returnType.hasMethodAnnotation(SqlBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlBudget budget = returnType.getMethodAnnotation(SqlBudget.class);
+        int count = SqlStatementCounter.current();
+        if (budget != null && count > budget.value()) {
+            throw new GlobalExceptionHandler.SqlBudgetExceededException(
+                    request.getMethod().name() + " " + request.getURI().getPath() + " ran " + count
+                            + " SQL statements, budget " + budget.value());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Считает SQL-запросы каждого HTTP-запроса: метрика {@value #METRIC} по маршруту и предупреждение в лог,
+ * если маршрут превысил свой {@link SqlBudget}. Ответ 500 в режиме fail отдаёт {@link SqlBudgetAdvice}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.sql.count", havingValue = "true")
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "shareit.sql.statements";
+
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (var scope = SqlStatementCounter.open()) {
+            chain.doFilter(request, response);
+            record(request, scope.count());
+        }
+    }
+
+    private void record(HttpServletRequest request, int count) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder(METRIC)
+                .description("SQL-запросов на один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(count);
+
+        SqlBudget budget = budget(request);
+        if (budget != null && count > budget.value()) {
+            log.warn("SQL budget exceeded: {} {} ran {} statements, budget {}",
+                    request.getMethod(), uri, count, budget.value());
+        }
+    }
+
+    private static SqlBudget budget(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        return handler instanceof HandlerMethod method ? method.getMethodAnnotation(SqlBudget.class) : null;
+    }
+}
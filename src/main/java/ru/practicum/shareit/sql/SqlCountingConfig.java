@@ -0,0 +1,29 @@
+package ru.practicum.shareit.sql;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Подмена пула на {@link CountingDataSource}. Без {@code shareit.sql.count=true} пул остаётся как есть.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.sql.count", havingValue = "true")
+public class SqlCountingConfig {
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+                    return new CountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.sql;
+
+/**
+ * Счётчик SQL-запросов текущего потока. Считает {@link CountingDataSource}, пока открыт {@link Scope};
+ * вне области ничего не считается.
+ * <pre>
+ * try (var scope = SqlStatementCounter.open()) {
+ *     bookingService.getBookings(...);
+ *     assert scope.count() == 2;
+ * }
+ * </pre>
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Сколько запросов выполнило {@code action}.
+     */
+    public static int count(Runnable action) {
+        try (Scope scope = open()) {
+            action.run();
+            return scope.count();
+        }
+    }
+
+    /**
+     * Счёт самой внутренней открытой области потока, 0 — если области нет.
+     */
+    public static int current() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.count : 0;
+    }
+
+    static void increment() {
+        // вложенные области видят и свои запросы, и запросы внутренних
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) CURRENT.remove();
+            else CURRENT.set(parent);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.sql.SqlBudget;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -17,6 +18,7 @@ public class UserController {
 
     private final UserService userService;
 
+    @SqlBudget(2)
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public UserDto create(@Valid @RequestBody CreateUserDto createUserDto) {
@@ -34,11 +36,13 @@ public class UserController {
         userService.deleteById(id);
     }
 
+    @SqlBudget(1)
     @GetMapping
     public List<UserDto> findAll() {
         return userService.findAll();
     }
 
+    @SqlBudget(1)
     @GetMapping("/{id}")
     public UserDto findById(@PathVariable Long id) {
         return userService.findById(id);
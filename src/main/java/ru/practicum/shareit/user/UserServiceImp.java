@@ -1,24 +1,38 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.availability.BookingIntervals;
+import ru.practicum.shareit.booking.availability.CompletedStays;
+import ru.practicum.shareit.config.MetricsConfig;
 import ru.practicum.shareit.exception.GlobalExceptionHandler;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.identity.UserIdentity;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Transactional
 @Slf4j
 @Service
+@Timed(value = MetricsConfig.SERVICE_METRIC, histogram = true)
 @RequiredArgsConstructor
 public class UserServiceImp implements UserService {
     private final UserRepository userRepository;
+    private final BookingIntervals bookingIntervals;
+    private final ItemCache itemCache;
+    private final UserIdentity userIdentity;
+    private final CompletedStays completedStays;
+    private final ItemSummaryRepository summaryRepository;
 
     @Override
     public UserDto createUser(CreateUserDto userDto) {
@@ -31,13 +45,16 @@ public class UserServiceImp implements UserService {
             log.warn("createUser: name is blank");
             throw new IllegalArgumentException("name required");
         }
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            log.info("createUser: email already used email={}", userDto.getEmail());
-            throw new GlobalExceptionHandler.ConflictException("email already used");
-        }
-        User saved = userRepository.save(UserMapper.fromCreate(userDto));
-        log.info("createUser: created id={}", saved.getId());
-        return UserMapper.toDto(saved);
+        User user = UserMapper.fromCreate(userDto);
+        Long id = userRepository.createIfEmailFree(user.getName(), user.getEmail())
+                .orElseThrow(() -> {
+                    log.info("createUser: email already used email={}", userDto.getEmail());
+                    return new GlobalExceptionHandler.ConflictException("email already used");
+                });
+        user.setId(id);
+        userIdentity.created(id);
+        log.info("createUser: created id={}", id);
+        return UserMapper.toDto(user);
     }
 
     @Override
@@ -77,7 +94,19 @@ public class UserServiceImp implements UserService {
     @Override
     public void deleteById(Long id) {
         log.debug("deleteById: id={}", id);
+        // после каскада брони и отзывы пользователя уже не найти — вещи для пересчёта сводки собираем заранее
+        List<Long> touched = summaryRepository.findItemsTouchedBy(id);
         userRepository.deleteById(id);
+        userRepository.flush();
+        if (!touched.isEmpty()) {
+            summaryRepository.refreshItems(touched, LocalDateTime.now());
+            summaryRepository.recountComments(touched);
+        }
+        userIdentity.deleted(id);
+        // брони и вещи пользователя удаляются каскадом в БД
+        bookingIntervals.reloadAfterCommit();
+        completedStays.dropUser(id);
+        itemCache.clear();
         log.info("deleteById: deleted id={}", id);
     }
 }
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.identity;
+
+/**
+ * Пользователь из заголовка {@code X-Sharer-User-Id}, существование которого уже проверено
+ * {@link UserIdentity}. Сервисы, получившие его, не ходят в БД за повторной проверкой.
+ */
+public record Sharer(Long id) {
+}
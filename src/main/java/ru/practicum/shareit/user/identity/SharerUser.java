@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.identity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Параметр контроллера типа {@link Sharer}: берётся из заголовка {@code X-Sharer-User-Id}
+ * и проверяется через {@link UserIdentity}. Нет заголовка — 400, нет пользователя — 404.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharerUser {
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user.identity;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Разрешает параметры {@code @SharerUser Sharer}. Проверенный пользователь запоминается в атрибуте запроса,
+ * так что за один HTTP-запрос проверка выполняется один раз.
+ */
+@Component
+@RequiredArgsConstructor
+public class SharerUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String HEADER = "X-Sharer-User-Id";
+    private static final String ATTRIBUTE = Sharer.class.getName();
+
+    private final UserIdentity userIdentity;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(SharerUser.class) && parameter.getParameterType() == Sharer.class;
+    }
+
+    @Override
+    public Sharer resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest request, WebDataBinderFactory binderFactory) throws Exception {
+        if (request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Sharer resolved) {
+            return resolved;
+        }
+        String header = request.getHeader(HEADER);
+        if (header == null) throw new MissingRequestHeaderException(HEADER, parameter);
+        Long id;
+        try {
+            id = Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            throw new MethodArgumentTypeMismatchException(header, Long.class, HEADER, parameter, e);
+        }
+        Sharer sharer = userIdentity.resolve(id);
+        request.setAttribute(ATTRIBUTE, sharer, RequestAttributes.SCOPE_REQUEST);
+        return sharer;
+    }
+}
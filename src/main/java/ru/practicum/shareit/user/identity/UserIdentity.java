@@ -0,0 +1,136 @@
+package ru.practicum.shareit.user.identity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
+import ru.practicum.shareit.notify.NotifyPublisher;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Проверка пользователя из заголовка {@code X-Sharer-User-Id} без запроса к БД на каждый вызов.
+ * <p>
+ * Существующие id держатся в ограниченном кэше, отсутствующие — в отдельном коротком кэше, чтобы перебор
+ * несуществующих id не вытеснял настоящих пользователей и не ходил в БД каждый раз. Создание и удаление
+ * пользователя применяются локально после коммита, другим инстансам уходит {@code NOTIFY},
+ * см. {@link UserIdentityListener}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdentity {
+
+    static final String CHANNEL = "user_identity";
+    static final String ALL = "*";
+    static final char CREATED = '+';
+    static final char DELETED = '-';
+
+    private final UserRepository userRepository;
+    private final NotifyPublisher notifyPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${shareit.users.identity.notify:false}")
+    private boolean notify;
+    @Value("${shareit.users.identity.max-size:100000}")
+    private long maxSize;
+    @Value("${shareit.users.identity.negative-max-size:10000}")
+    private long negativeMaxSize;
+    @Value("${shareit.users.identity.negative-ttl:30s}")
+    private Duration negativeTtl;
+
+    private Cache<Long, Boolean> known;
+    private Cache<Long, Boolean> missing;
+    // меняется при каждом создании, удалении и сбросе: результат запроса, начатого раньше, в кэш не кладём
+    private final AtomicLong version = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        known = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        missing = Caffeine.newBuilder().maximumSize(negativeMaxSize).expireAfterWrite(negativeTtl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, known, "user_identity");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "user_identity_missing");
+    }
+
+    /**
+     * Проверенный пользователь или {@code NotFoundException("user not found")}.
+     */
+    public Sharer resolve(Long id) {
+        if (!exists(id)) throw new GlobalExceptionHandler.NotFoundException("user not found");
+        return new Sharer(id);
+    }
+
+    public boolean exists(Long id) {
+        if (known.getIfPresent(id) != null) return true;
+        if (missing.getIfPresent(id) != null) return false;
+        long seen = version.get();
+        boolean exists = userRepository.existsById(id);
+        if (version.get() == seen) (exists ? known : missing).put(id, Boolean.TRUE);
+        return exists;
+    }
+
+    public void created(Long id) {
+        publish(CREATED + String.valueOf(id));
+        afterCommit(() -> createdLocal(id));
+    }
+
+    public void deleted(Long id) {
+        // до коммита тоже убираем: параллельный запрос пойдёт в БД, а не поверит кэшу
+        deletedLocal(id);
+        publish(DELETED + String.valueOf(id));
+        afterCommit(() -> deletedLocal(id));
+    }
+
+    public void clear() {
+        clearLocal();
+        publish(ALL);
+        afterCommit(this::clearLocal);
+    }
+
+    void createdLocal(Long id) {
+        version.incrementAndGet();
+        missing.invalidate(id);
+        known.put(id, Boolean.TRUE);
+        log.debug("created: id={}", id);
+    }
+
+    void deletedLocal(Long id) {
+        version.incrementAndGet();
+        known.invalidate(id);
+        log.debug("deleted: id={}", id);
+    }
+
+    void clearLocal() {
+        version.incrementAndGet();
+        known.invalidateAll();
+        missing.invalidateAll();
+        log.debug("clear");
+    }
+
+    private void publish(String payload) {
+        if (notify) notifyPublisher.publish(CHANNEL, payload);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user.identity;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.notify.NotifyHandler;
+
+/**
+ * Канал {@code user_identity}: применяет к локальным кэшам {@link UserIdentity} создание и удаление
+ * пользователей на других инстансах. После переподключения слушателя кэши сбрасываются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.users.identity.notify", havingValue = "true")
+public class UserIdentityListener implements NotifyHandler {
+
+    private final UserIdentity userIdentity;
+
+    @Override
+    public String channel() {
+        return UserIdentity.CHANNEL;
+    }
+
+    @Override
+    public void handle(String payload) {
+        if (UserIdentity.ALL.equals(payload)) {
+            userIdentity.clearLocal();
+            return;
+        }
+        try {
+            Long id = Long.valueOf(payload.substring(1));
+            switch (payload.charAt(0)) {
+                case UserIdentity.CREATED -> userIdentity.createdLocal(id);
+                case UserIdentity.DELETED -> userIdentity.deletedLocal(id);
+                default -> log.warn("listen: unexpected payload={}", payload);
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            log.warn("listen: unexpected payload={}", payload);
+        }
+    }
+
+    @Override
+    public void resync() {
+        userIdentity.clearLocal();
+    }
+}
@@ -1,10 +1,21 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    boolean existsByEmail(String email);
+import java.util.Optional;
 
+public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmailAndId(String email, Long id);
+
+    //проверка занятости email и вставка — один запрос; пустой результат — email уже занят
+    @Transactional
+    @Query(value = """
+              insert into users (name, email) values (:name, :email)
+              on conflict (email) do nothing
+              returning id_user
+            """, nativeQuery = true)
+    Optional<Long> createIfEmailFree(String name, String email);
 }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.utils;
+
+import jakarta.validation.ConstraintViolation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Результат обработки одной строки пакетного запроса: {@code id} созданной записи или {@code error}.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResultDto {
+
+    public static final int MAX_ROWS = 10_000;
+
+    private final int index;
+    private final Long id;
+    private final String error;
+
+    public static BatchResultDto ok(int index, Long id) {
+        return new BatchResultDto(index, id, null);
+    }
+
+    public static BatchResultDto failed(int index, String error) {
+        return new BatchResultDto(index, null, error);
+    }
+
+    public static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
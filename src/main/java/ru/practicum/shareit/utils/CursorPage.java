@@ -0,0 +1,11 @@
+package ru.practicum.shareit.utils;
+
+import java.util.List;
+
+/**
+ * Страница в режиме курсора; {@code next} равен null, если дальше данных нет.
+ */
+public record CursorPage<T>(List<T> items, String next) {
+
+    public static final String NEXT_HEADER = "X-Next-Cursor";
+}
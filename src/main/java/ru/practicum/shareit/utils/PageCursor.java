@@ -0,0 +1,34 @@
+package ru.practicum.shareit.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: позиция последней отданной строки — {@code (start, id)} или только {@code id}.
+ */
+public record PageCursor(LocalDateTime start, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep < 0) return of(Long.parseLong(raw));
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = start == null ? String.valueOf(id) : start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+  id_user BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(512) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS items (
+  id_item BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  description VARCHAR NOT NULL,
+  available BOOLEAN NOT NULL,
+  owner_id BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
+  item_request_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS bookings(
+id_booking BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
+start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+id_item BIGINT NOT NULL REFERENCES items(id_item) ON DELETE CASCADE,
+id_booker BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
+status VARCHAR NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS comments(
+id_comment BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
+id_item BIGINT NOT NULL REFERENCES items(id_item) ON DELETE CASCADE,
+author_id BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
+text VARCHAR NOT NULL,
+created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS itemRequests(
+id_request BIGINT DEFAULT nextval('item_requests_seq') PRIMARY KEY,
+description VARCHAR NOT NULL,
+requestor_id BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
+created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- таблицы, созданные до перехода на последовательности: снимаем IDENTITY и продвигаем последовательность за max(id)
+ALTER TABLE users ALTER COLUMN id_user DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id_user SET DEFAULT nextval('users_seq');
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id_user), 0) FROM users)));
+ALTER TABLE items ALTER COLUMN id_item DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id_item SET DEFAULT nextval('items_seq');
+SELECT setval('items_seq', GREATEST((SELECT last_value FROM items_seq), (SELECT COALESCE(MAX(id_item), 0) FROM items)));
+ALTER TABLE bookings ALTER COLUMN id_booking DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id_booking SET DEFAULT nextval('bookings_seq');
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id_booking), 0) FROM bookings)));
+ALTER TABLE comments ALTER COLUMN id_comment DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id_comment SET DEFAULT nextval('comments_seq');
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id_comment), 0) FROM comments)));
+ALTER TABLE itemRequests ALTER COLUMN id_request DROP IDENTITY IF EXISTS;
+ALTER TABLE itemRequests ALTER COLUMN id_request SET DEFAULT nextval('item_requests_seq');
+SELECT setval('item_requests_seq', GREATEST((SELECT last_value FROM item_requests_seq), (SELECT COALESCE(MAX(id_request), 0) FROM itemRequests)));
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx
+    ON items USING gin (name gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx
+    ON items USING gin (description gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items(owner_id, id_item);
+
+CREATE TABLE IF NOT EXISTS item_summary(
+id_item BIGINT PRIMARY KEY REFERENCES items(id_item) ON DELETE CASCADE,
+last_booking_id BIGINT,
+last_booker_id BIGINT,
+last_start TIMESTAMP WITHOUT TIME ZONE,
+last_end TIMESTAMP WITHOUT TIME ZONE,
+next_booking_id BIGINT,
+next_booker_id BIGINT,
+next_start TIMESTAMP WITHOUT TIME ZONE,
+next_end TIMESTAMP WITHOUT TIME ZONE,
+comment_count BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS item_summary_next_start_idx
+    ON item_summary(next_start) WHERE next_start IS NOT NULL;
+
+-- пересечение подтверждённых бронирований одной вещи запрещено на уровне БД,
+-- параллельные подтверждения не нужно сериализовать в приложении
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- старые данные могут содержать пересечения: тогда ограничение не создаётся до их разбора
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_no_overlap'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING gist (id_item WITH =, tsrange(start_time, end_time) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+    DROP INDEX IF EXISTS bookings_approved_period_idx;
+EXCEPTION WHEN exclusion_violation THEN
+    RAISE WARNING ''bookings_no_overlap not created: approved bookings overlap'';
+    -- без ограничения поиску свободных вещей (/items/search?start&end) нужен тот же индекс
+    CREATE INDEX IF NOT EXISTS bookings_approved_period_idx
+        ON bookings USING gist (id_item, tsrange(start_time, end_time)) WHERE status = ''APPROVED'';
+END';
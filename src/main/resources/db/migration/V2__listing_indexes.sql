@@ -0,0 +1,34 @@
+-- списки бронирований сортируются по start_time desc, id desc (в т.ч. keyset-курсор)
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx
+    ON bookings(id_booker, start_time DESC, id_booking DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx
+    ON bookings(id_booker, status, start_time DESC, id_booking DESC);
+
+-- владелец: items_owner_idx даёт вещи, дальше брони по вещи в том же порядке
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx
+    ON bookings(id_item, start_time DESC, id_booking DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx
+    ON bookings(id_item, status, start_time DESC, id_booking DESC);
+
+-- сводка item_summary: последнее (по end_time) и ближайшее (по start_time) подтверждённое бронирование
+CREATE INDEX IF NOT EXISTS bookings_approved_item_end_idx
+    ON bookings(id_item, end_time) WHERE status = 'APPROVED';
+
+-- право на комментарий: завершённое подтверждённое бронирование автора
+CREATE INDEX IF NOT EXISTS bookings_approved_booker_item_idx
+    ON bookings(id_booker, id_item, end_time) WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx
+    ON comments(id_item, created);
+
+-- каскадное удаление пользователя
+CREATE INDEX IF NOT EXISTS comments_author_idx
+    ON comments(author_id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx
+    ON items(item_request_id) WHERE item_request_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS item_requests_requestor_created_idx
+    ON itemRequests(requestor_id, created DESC);
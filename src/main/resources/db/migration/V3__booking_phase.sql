@@ -0,0 +1,16 @@
+-- все строки начинают с FUTURE, BookingPhaseScheduler продвигает их по часам приложения
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR NOT NULL DEFAULT 'FUTURE';
+
+-- state=CURRENT/PAST/FUTURE: равенство по (пользователь, phase) и порядок start_time desc, id desc
+CREATE INDEX IF NOT EXISTS bookings_booker_phase_start_idx
+    ON bookings(id_booker, phase, start_time DESC, id_booking DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_phase_start_idx
+    ON bookings(id_item, phase, start_time DESC, id_booking DESC);
+
+-- очереди планировщика: только строки, которым ещё предстоит переход
+CREATE INDEX IF NOT EXISTS bookings_phase_start_due_idx
+    ON bookings(start_time) WHERE phase = 'FUTURE';
+
+CREATE INDEX IF NOT EXISTS bookings_phase_end_due_idx
+    ON bookings(end_time) WHERE phase <> 'PAST';
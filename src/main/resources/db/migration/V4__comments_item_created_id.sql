@@ -0,0 +1,6 @@
+-- последние отзывы вещи и курсор по ним: порядок (created, id_comment) однозначен и при совпадении времени
+CREATE INDEX IF NOT EXISTS comments_item_created_id_idx
+    ON comments(id_item, created, id_comment);
+
+-- префикс нового индекса, больше не нужен
+DROP INDEX IF EXISTS comments_item_created_idx;
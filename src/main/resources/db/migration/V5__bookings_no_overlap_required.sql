@@ -0,0 +1,20 @@
+-- V1 мог оставить базу без bookings_no_overlap: проверка искала ограничение по имени во всех схемах,
+-- а при пересекающихся подтверждённых бронях создавала вместо него запасной индекс и шла дальше.
+-- Здесь ограничение обязательно: если брони пересекаются, миграция падает и приложение не стартует.
+-- Пересечения находит запрос
+--   select a.id_booking, b.id_booking from bookings a join bookings b
+--     on a.id_item = b.id_item and a.id_booking < b.id_booking
+--    and tsrange(a.start_time, a.end_time) && tsrange(b.start_time, b.end_time)
+--   where a.status = 'APPROVED' and b.status = 'APPROVED';
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = ''bookings_no_overlap'' AND conrelid = ''bookings''::regclass) THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING gist (id_item WITH =, tsrange(start_time, end_time) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END';
+
+-- индекс ограничения обслуживает и поиск свободных вещей
+DROP INDEX IF EXISTS bookings_approved_period_idx;
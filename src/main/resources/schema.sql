@@ -1,38 +0,0 @@
-CREATE TABLE IF NOT EXISTS users (
-  id_user BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  name VARCHAR(255) NOT NULL,
-  email VARCHAR(512) NOT NULL UNIQUE
-);
-
-CREATE TABLE IF NOT EXISTS items (
-  id_item BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-  name VARCHAR(255) NOT NULL,
-  description VARCHAR NOT NULL,
-  available BOOLEAN NOT NULL,
-  owner_id BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
-  item_request_id BIGINT
-);
-
-CREATE TABLE IF NOT EXISTS bookings(
-id_booking BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-start_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-end_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-id_item BIGINT NOT NULL REFERENCES items(id_item) ON DELETE CASCADE,
-id_booker BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
-status VARCHAR NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS comments(
-id_comment BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-id_item BIGINT NOT NULL REFERENCES items(id_item) ON DELETE CASCADE,
-author_id BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
-text VARCHAR NOT NULL,
-created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS itemRequests(
-id_request BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-description VARCHAR NOT NULL,
-requestor_id BIGINT NOT NULL REFERENCES users(id_user) ON DELETE CASCADE,
-created TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
-);
@@ -0,0 +1,46 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Данные для интеграционных тестов через сервисы. Схема тестов общая для прогонов,
+ * поэтому почта уникальна, а проверки смотрят только на созданные тестом записи.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestData {
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+
+    public Sharer user() {
+        var dto = new CreateUserDto();
+        dto.setName("user");
+        dto.setEmail(UUID.randomUUID() + "@test.ru");
+        return new Sharer(userService.createUser(dto).getId());
+    }
+
+    public Long item(Sharer owner) {
+        return itemService.create(owner, new ItemCreateDto("вещь", "для теста", true)).getId();
+    }
+
+    public Long booking(Sharer booker, Long itemId, LocalDateTime start, LocalDateTime end) {
+        var dto = new BookingCreateDto();
+        dto.setItemId(itemId);
+        dto.setStart(start);
+        dto.setEnd(end);
+        return bookingService.create(booker, dto).getId();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Параллельные подтверждения пересекающихся броней одной вещи: проходит ровно одно.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class ApproveConcurrencyTests {
+
+    private static final int BOOKINGS = 8;
+
+    @Autowired
+    private TestData data;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void approveLetsExactlyOneOverlappingBookingThrough() throws Exception {
+        Sharer owner = data.user();
+        Long itemId = data.item(owner);
+        List<Long> bookings = overlappingBookings(itemId);
+
+        List<Throwable> failures = runTogether(bookings.stream()
+                .<Callable<Object>>map(id -> () -> bookingService.approve(owner.id(), id, true))
+                .toList());
+
+        assertEquals(BOOKINGS - 1, failures.size());
+        // проигравшие отсекаются индексом в памяти или, если он не успел, ограничением в БД
+        failures.forEach(e -> assertTrue(e instanceof IllegalStateException
+                || e instanceof DataIntegrityViolationException, e.toString()));
+        assertEquals(1, approved(itemId));
+    }
+
+    @Test
+    void exclusionConstraintRejectsParallelApprovalsWithoutTheService() throws Exception {
+        Sharer owner = data.user();
+        Long itemId = data.item(owner);
+        List<Long> bookings = overlappingBookings(itemId);
+
+        List<Throwable> failures = runTogether(bookings.stream()
+                .<Callable<Object>>map(id -> () -> jdbcTemplate.update(
+                        "update bookings set status = 'APPROVED' where id_booking = ?", id))
+                .toList());
+
+        assertEquals(BOOKINGS - 1, failures.size());
+        failures.forEach(e -> {
+            assertInstanceOf(DataIntegrityViolationException.class, e);
+            assertTrue(e.getMessage().contains("bookings_no_overlap"), e.getMessage());
+        });
+        assertEquals(1, approved(itemId));
+    }
+
+    private List<Long> overlappingBookings(Long itemId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.SECONDS);
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            // каждая следующая начинается на час позже и пересекается со всеми остальными
+            ids.add(data.booking(data.user(), itemId, start.plusHours(i), start.plusDays(2).plusHours(i)));
+        }
+        return ids;
+    }
+
+    /**
+     * Запускает задачи одновременно и возвращает ошибки проигравших.
+     */
+    private static List<Throwable> runTogether(List<Callable<Object>> tasks) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var failures = new ArrayList<Throwable>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(tasks.size())) {
+            var futures = new ArrayList<Future<Object>>();
+            for (Callable<Object> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Object> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+        }
+        return failures;
+    }
+
+    private int approved(Long itemId) {
+        Integer n = jdbcTemplate.queryForObject(
+                "select count(*) from bookings where id_item = ? and status = 'APPROVED'", Integer.class, itemId);
+        return n == null ? 0 : n;
+    }
+}
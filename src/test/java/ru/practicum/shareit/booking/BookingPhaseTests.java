@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.Role;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.sql.CapturedSql;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выборка по фазе не ждёт тика планировщика: перед чтением фазы доводятся до текущего момента,
+ * и сам запрос идёт по равенству фазы.
+ */
+@SpringBootTest(properties = "shareit.bookings.phase.tick-ms=3600000")
+@Import(TestData.class)
+class BookingPhaseTests {
+
+    @Autowired
+    private TestData data;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void phasesAreCaughtUpBeforeThePhaseListing() {
+        Sharer owner = data.user();
+        Sharer booker = data.user();
+        Long itemId = data.item(owner);
+        LocalDateTime now = LocalDateTime.now();
+        Long started = data.booking(booker, itemId, now.plusDays(1), now.plusDays(2));
+        Long ended = data.booking(booker, itemId, now.plusDays(3), now.plusDays(4));
+        Long future = data.booking(booker, itemId, now.plusDays(5), now.plusDays(6));
+        // время прошло, а планировщик ещё не отработал: фаза в строках осталась FUTURE
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id_booking = ?",
+                now.minusHours(1), now.plusHours(1), started);
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id_booking = ?",
+                now.minusHours(3), now.minusHours(2), ended);
+
+        List<String> sql = CapturedSql.during(() -> assertEquals(List.of(started), ids(booker, BookingState.CURRENT)));
+        // CapturedSql видит только запросы этого потока — планировщики контекстов в них не попадают
+        assertTrue(sql.getFirst().stripLeading().startsWith("update"), sql.getFirst());
+        assertTrue(sql.getLast().stripLeading().startsWith("select"), sql.getLast());
+        assertEquals("CURRENT", phase(started));
+        assertEquals("PAST", phase(ended));
+
+        assertEquals(List.of(ended), ids(booker, BookingState.PAST));
+        assertEquals(List.of(future), ids(booker, BookingState.FUTURE));
+        assertEquals(List.of(started), ids(owner, Role.OWNER, BookingState.CURRENT));
+        assertEquals(List.of(ended), ids(owner, Role.OWNER, BookingState.PAST));
+    }
+
+    private String phase(Long bookingId) {
+        return jdbcTemplate.queryForObject("select phase from bookings where id_booking = ?", String.class, bookingId);
+    }
+
+    private List<Long> ids(Sharer user, BookingState state) {
+        return ids(user, Role.BOOKER, state);
+    }
+
+    private List<Long> ids(Sharer user, Role role, BookingState state) {
+        return bookingService.getBookings(user, role, state, 0, 10).stream()
+                .map(BookingDto::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.notify.NotifyPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Интервал, занятый в ещё не завершённой транзакции подтверждения, переживает перечитывание из БД
+ * и освобождается только её откатом.
+ */
+class BookingIntervalsTests {
+
+    private static final long ITEM = 7L;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingIntervals intervals = new BookingIntervals(bookingRepository, mock(NotifyPublisher.class));
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final BookedInterval reserved = new BookedInterval(1L, ITEM, start, start.plusDays(1));
+
+    @BeforeEach
+    void loaded() {
+        // в БД неподтверждённая бронь ещё не видна
+        when(bookingRepository.findIntervalsEndingAfter(eq(BookingStatus.APPROVED), any())).thenReturn(List.of());
+        when(bookingRepository.findIntervalsByItemEndingAfter(eq(ITEM), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of());
+        intervals.load();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clear() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void pendingReservationSurvivesReloadAndIsReleasedOnRollback() {
+        assertTrue(intervals.tryReserve(reserved));
+
+        intervals.reloadItem(ITEM);
+        assertTrue(intervals.overlaps(ITEM, start.plusHours(1), start.plusHours(2)));
+        intervals.load();
+        assertTrue(intervals.overlaps(ITEM, start.plusHours(1), start.plusHours(2)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertFalse(intervals.overlaps(ITEM, start.plusHours(1), start.plusHours(2)));
+    }
+
+    @Test
+    void committedReservationStaysUntilTheDatabaseShowsIt() {
+        assertTrue(intervals.tryReserve(reserved));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertTrue(intervals.overlaps(ITEM, start.plusHours(1), start.plusHours(2)));
+
+        when(bookingRepository.findIntervalsByItemEndingAfter(eq(ITEM), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(reserved));
+        intervals.reloadItem(ITEM);
+        assertTrue(intervals.overlaps(ITEM, start.plusHours(1), start.plusHours(2)));
+        assertFalse(intervals.tryReserve(new BookedInterval(2L, ITEM, start.plusHours(3), start.plusHours(4))));
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+    }
+}
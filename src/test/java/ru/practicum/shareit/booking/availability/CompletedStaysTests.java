@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompletedStaysTests {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final CompletedStays stays = new CompletedStays(bookingRepository);
+
+    @Test
+    void missesUntilLoadedThenAnswersFromMemory() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findStays(BookingStatus.APPROVED)).thenReturn(List.of(
+                new Stay(1L, 10L, 100L, now.minusDays(1)),
+                new Stay(2L, 10L, 200L, now.plusHours(1))));
+
+        assertFalse(stays.contains(10L, 100L, now));
+        stays.reload();
+
+        assertTrue(stays.contains(10L, 100L, now));
+        // ещё идёт — в очереди до своего конца
+        assertFalse(stays.contains(10L, 200L, now));
+        assertTrue(stays.contains(10L, 200L, now.plusHours(2)));
+        assertFalse(stays.contains(11L, 100L, now));
+    }
+
+    @Test
+    void approvalDuringReloadIsKept() {
+        LocalDateTime now = LocalDateTime.now();
+        // подтверждение приходит, пока reload читает БД, и запрос его ещё не видит
+        when(bookingRepository.findStays(BookingStatus.APPROVED)).thenAnswer(invocation -> {
+            stays.approved(new Stay(3L, 20L, 300L, now.minusMinutes(1)));
+            return List.of();
+        });
+
+        stays.reload();
+
+        assertTrue(stays.contains(20L, 300L, now));
+    }
+
+    @Test
+    void recordAndDropUser() {
+        when(bookingRepository.findStays(BookingStatus.APPROVED)).thenReturn(List.of());
+        stays.reload();
+        LocalDateTime now = LocalDateTime.now();
+
+        stays.record(30L, 400L);
+        stays.record(30L, 100L);
+        assertTrue(stays.contains(30L, 400L, now));
+        assertTrue(stays.contains(30L, 100L, now));
+
+        stays.dropUser(30L);
+        assertFalse(stays.contains(30L, 400L, now));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Счётчик отзывов в карточке, когда строки item_summary нет: в превью только последние отзывы,
+ * а счётчик — все.
+ */
+@SpringBootTest(properties = "shareit.items.comments.preview-size=3")
+@Import(TestData.class)
+class ItemCardTests {
+
+    @Autowired
+    private TestData data;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void commentCountWithoutSummaryIsTheRealCount() {
+        Sharer owner = data.user();
+        Sharer author = data.user();
+        Long itemId = data.item(owner);
+        Long fewId = data.item(owner);
+        comments(itemId, author, 5);
+        comments(fewId, author, 2);
+        jdbcTemplate.update("delete from item_summary where id_item in (?, ?)", itemId, fewId);
+        itemCache.evict(itemId);
+        itemCache.evict(fewId);
+
+        ItemDto card = itemService.getById(owner.id(), itemId);
+        assertEquals(3, card.getComments().size());
+        assertEquals(5L, card.getCommentCount());
+
+        ItemDto few = itemService.getById(owner.id(), fewId);
+        assertEquals(2, few.getComments().size());
+        assertEquals(2L, few.getCommentCount());
+    }
+
+    private void comments(Long itemId, Sharer author, int n) {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < n; i++) {
+            jdbcTemplate.update("insert into comments (id_item, author_id, text, created) values (?, ?, ?, ?)",
+                    itemId, author.id(), "отзыв " + i, created.plusMinutes(i));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Вещь без строки item_summary не видна в списке владельца, поэтому при сбое вставки сводки
+ * не сохраняется и сама вещь.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class ItemCreateTests {
+
+    @Autowired
+    private TestData data;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private ItemSummaryRepository summaryRepository;
+
+    @Test
+    void itemIsNotSavedWithoutItsSummary() {
+        Sharer owner = data.user();
+        doThrow(new DataIntegrityViolationException("item_summary")).when(summaryRepository).createFor(anyLong());
+
+        ItemCreateDto dto = new ItemCreateDto();
+        dto.setName("дрель");
+        dto.setDescription("ударная");
+        dto.setAvailable(true);
+        assertThrows(DataIntegrityViolationException.class, () -> itemService.create(owner, dto));
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from items where owner_id = ?",
+                Integer.class, owner.id()));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.notify;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class NotifyPublisherTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NotifyPublisher publisher = new NotifyPublisher(jdbcTemplate);
+    private final NotifyPublisher other = new NotifyPublisher(mock(JdbcTemplate.class));
+
+    @Test
+    void ownNotificationsAreSkippedOthersAreUnwrapped() {
+        publisher.publish("item_cache", "42");
+        var message = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForObject(eq("select pg_notify(?, ?)"), eq(Object.class), eq("item_cache"),
+                message.capture());
+
+        assertNull(publisher.foreign(message.getValue()));
+        assertEquals("42", other.foreign(message.getValue()));
+        // без метки — например, NOTIFY вручную из psql
+        assertEquals("*", publisher.foreign("*"));
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ItemRequestControllerTests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private TestData data;
+
+    @Test
+    void allRejectsBadPaging() throws Exception {
+        Sharer user = data.user();
+        mvc.perform(get("/requests/all").header(USER_HEADER, user.id()).param("from", "-1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/requests/all").header(USER_HEADER, user.id()).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/requests/all").header(USER_HEADER, user.id()).param("from", "0").param("size", "1"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.request.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Журнал и карта при параллельных {@code save} одного id: после перезапуска из журнала
+ * восстанавливается та же версия запроса, что была в памяти.
+ */
+class RequestJournalTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void laterJournalRecordWinsWhenSavesOvertakeEachOther() throws Exception {
+        // первая запись задерживается между журналом и картой, пока вторая проходит целиком
+        var firstAppended = new CountDownLatch(1);
+        var secondSaved = new CountDownLatch(1);
+        ItemRequest live;
+        try (RequestLog journal = new RequestLog(dir.toString(), DataSize.ofMegabytes(1), false,
+                DataSize.ofMegabytes(64)) {
+            @Override
+            public long append(ItemRequest request) {
+                long end = super.append(request);
+                if ("первая".equals(request.getDescription())) {
+                    firstAppended.countDown();
+                    passed(secondSaved);
+                }
+                return end;
+            }
+        }) {
+            var repository = new RequestRepositoryImpl(journal);
+            repository.recover();
+            Long id = repository.save(new ItemRequest(null, "исходная", 1L, NOW)).getId();
+
+            var first = CompletableFuture.runAsync(() ->
+                    repository.save(new ItemRequest(id, "первая", 2L, NOW.plusMinutes(1))));
+            passed(firstAppended);
+            repository.save(new ItemRequest(id, "вторая", 3L, NOW.plusMinutes(2)));
+            secondSaved.countDown();
+            first.get(10, TimeUnit.SECONDS);
+
+            live = repository.findById(id).orElseThrow();
+            assertEquals("вторая", live.getDescription());
+            assertEquals(1, repository.findByRequestorId(3L).size());
+            assertTrue(repository.findByRequestorId(2L).isEmpty());
+        }
+
+        try (RequestLog journal = new RequestLog(dir.toString(), DataSize.ofMegabytes(1), false,
+                DataSize.ofMegabytes(64))) {
+            var recovered = new RequestRepositoryImpl(journal);
+            recovered.recover();
+            ItemRequest restored = recovered.findById(live.getId()).orElseThrow();
+            assertEquals(live.getDescription(), restored.getDescription());
+            assertEquals(live.getRequestor(), restored.getRequestor());
+            assertEquals(live.getCreated(), restored.getCreated());
+        }
+    }
+
+    private static void passed(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.request.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link RequestRepositoryImpl} под параллельной записью: нити пересохраняют одни и те же запросы со сменой
+ * автора и времени, другие в это время читают списки автора и общую ленту. Читатели проверяют порядок,
+ * после остановки основная карта сверяется с обоими индексами.
+ */
+class RequestRepositoryStressTests {
+
+    private static final int REQUESTS = 2_000;
+    private static final int REQUESTORS = 20;
+    private static final int WRITERS = 4;
+    private static final int READERS = 2;
+    private static final int SAVES_PER_WRITER = 50_000;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final RequestRepositoryImpl repository = new RequestRepositoryImpl(null);
+    // время растёт монотонно, чтобы пересохранённый запрос переезжал в начало индексов
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void indexesMatchStoreAfterConcurrentResaves() throws Exception {
+        for (int i = 0; i < REQUESTS; i++) {
+            repository.save(new ItemRequest(null, "запрос " + i, (long) (i % REQUESTORS), tick()));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        var errors = new ConcurrentLinkedQueue<String>();
+        var writers = new ArrayList<Future<?>>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                        long id = 1 + random.nextInt(REQUESTS);
+                        repository.save(new ItemRequest(id, "обновлён", (long) random.nextInt(REQUESTORS), tick()));
+                    }
+                    return null;
+                }));
+            }
+            var readers = new ArrayList<Future<?>>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(pool.submit(() -> {
+                    start.await();
+                    var random = ThreadLocalRandom.current();
+                    while (writing.get()) {
+                        long user = random.nextInt(REQUESTORS);
+                        if (!newestFirst(repository.findByRequestorId(user))) errors.add("порядок автора " + user);
+                        var page = repository.findOthers(user, 0, 20);
+                        if (!newestFirst(page)) errors.add("порядок ленты");
+                        if (page.stream().anyMatch(p -> Objects.equals(p.getRequestor(), user))) {
+                            errors.add("в ленте " + user + " его собственный запрос");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : writers) f.get(2, TimeUnit.MINUTES);
+            writing.set(false);
+            for (Future<?> f : readers) f.get(1, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(errors.isEmpty(), () -> String.join(", ", errors));
+        verifyIndexes();
+    }
+
+    private void verifyIndexes() {
+        var seen = new HashSet<Long>();
+        for (long user = 0; user < REQUESTORS; user++) {
+            List<ItemRequest> own = repository.findByRequestorId(user);
+            assertTrue(newestFirst(own), "порядок автора " + user);
+            for (ItemRequest r : own) {
+                ItemRequest stored = repository.findById(r.getId()).orElseThrow();
+                assertEquals(user, stored.getRequestor(), "индекс автора устарел для запроса " + r.getId());
+                assertEquals(stored.getCreated(), r.getCreated(), "индекс автора устарел для запроса " + r.getId());
+                assertTrue(seen.add(r.getId()), "запрос " + r.getId() + " у двух авторов");
+            }
+        }
+        assertEquals(REQUESTS, seen.size());
+
+        List<ItemRequest> feed = repository.findOthers(-1L, 0, Integer.MAX_VALUE);
+        assertEquals(REQUESTS, feed.size());
+        assertTrue(newestFirst(feed));
+        for (ItemRequest r : feed) {
+            assertEquals(repository.findById(r.getId()).orElseThrow().getCreated(), r.getCreated());
+        }
+    }
+
+    private static boolean newestFirst(List<ItemRequest> requests) {
+        for (int i = 1; i < requests.size(); i++) {
+            if (requests.get(i).getCreated().isAfter(requests.get(i - 1).getCreated())) return false;
+        }
+        return true;
+    }
+
+    @Test
+    void savedCopyIsDetachedFromCaller() {
+        var request = new ItemRequest(null, "дрель", 1L, tick());
+        repository.save(request);
+        request.setRequestor(2L);
+
+        assertEquals(1, repository.findByRequestorId(1L).size());
+        assertTrue(repository.findByRequestorId(2L).isEmpty());
+    }
+
+    private LocalDateTime tick() {
+        return NOW.plusNanos(clock.incrementAndGet() * 1000);
+    }
+}
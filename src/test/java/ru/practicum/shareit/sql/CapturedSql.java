@@ -0,0 +1,36 @@
+package ru.practicum.shareit.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запоминает SQL, который Hibernate готовит в текущем потоке, пока открыт {@link #during}.
+ * Подключается в тестовом профиле через {@code hibernate.session_factory.statement_inspector}.
+ */
+public class CapturedSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CURRENT.get();
+        if (captured != null) captured.add(sql);
+        return sql;
+    }
+
+    /**
+     * SQL, подготовленный Hibernate за время {@code action}, в порядке выполнения.
+     */
+    public static List<String> during(Runnable action) {
+        var captured = new ArrayList<String>();
+        CURRENT.set(captured);
+        try {
+            action.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return captured;
+    }
+}
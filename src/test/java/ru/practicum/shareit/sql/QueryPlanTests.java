@@ -0,0 +1,145 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.Role;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.summary.ItemSummaryRepository;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Регрессия планов: запросы списков и карточек идут по своим индексам, без seq scan,
+ * а списки бронирующего отдают страницу в порядке индекса, без сортировки.
+ */
+@SpringBootTest
+@Import({TestData.class, QueryPlans.class})
+class QueryPlanTests {
+
+    @Autowired
+    private TestData data;
+    @Autowired
+    private QueryPlans plans;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemSummaryRepository summaryRepository;
+
+    @BeforeEach
+    void volume() {
+        plans.ensureVolume();
+    }
+
+    @Test
+    void bookerListingsReadTheIndexInPageOrder() {
+        Sharer booker = data.user();
+        String cursor = new PageCursor(LocalDateTime.now(), Long.MAX_VALUE).encode();
+        for (BookingState state : BookingState.values()) {
+            String index = bookerIndex(state);
+            plans.single("select", () -> bookingService.getBookings(booker, Role.BOOKER, state, 0, 10))
+                    .usesIndex(index).noSeqScan().noSort();
+            plans.single("select", () -> bookingService.getBookingsAfter(booker, Role.BOOKER, state, cursor, 10))
+                    .usesIndex(index).noSeqScan().noSort();
+        }
+    }
+
+    @Test
+    void ownerListingsGoThroughOwnerItems() {
+        Sharer owner = data.user();
+        String cursor = new PageCursor(LocalDateTime.now(), Long.MAX_VALUE).encode();
+        for (BookingState state : BookingState.values()) {
+            String index = ownerIndex(state);
+            plans.single("select", () -> bookingService.getBookings(owner, Role.OWNER, state, 0, 10))
+                    .usesIndex(index).noSeqScan();
+            plans.single("select", () -> bookingService.getBookingsAfter(owner, Role.OWNER, state, cursor, 10))
+                    .usesIndex(index).noSeqScan();
+        }
+    }
+
+    @Test
+    void ownerItemListReadsSummaries() {
+        Sharer owner = data.user();
+        data.item(owner);
+        plans.single("select", () -> summaryRepository.findByOwner(owner.id(),
+                        PageRequest.of(0, 10)))
+                .usesIndex("items_owner_idx", "item_summary_pkey").noSeqScan();
+        plans.single("select", () -> commentRepository.findNewestByItems(List.of(1L, 2L), 10))
+                .usesIndex("comments_item_created_id_idx").noSeqScan();
+    }
+
+    @Test
+    void itemCardAndCommentsReadByItem() {
+        Sharer owner = data.user();
+        Long itemId = data.item(owner);
+        plans.of(() -> itemService.getById(owner.id(), itemId)).forEach(QueryPlans.Plan::noSeqScan);
+        String cursor = new PageCursor(LocalDateTime.now(), Long.MAX_VALUE).encode();
+        plans.single("select", () -> itemService.getComments(itemId, cursor, 10))
+                .usesIndex("comments_item_created_id_idx").noSeqScan().noSort();
+    }
+
+    @Test
+    void postgresSearchUsesTrigramIndexes() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        plans.single("select", () -> itemRepository.searchRanked("дрель", "дрель", 0, 10))
+                .usesIndex("items_name_trgm_idx", "items_description_trgm_idx").noSeqScan();
+        plans.single("select", () -> itemRepository.searchRankedFree("дрель", "дрель", start, start.plusDays(1), 0, 10))
+                .usesIndex("items_name_trgm_idx", "items_description_trgm_idx", "bookings_no_overlap").noSeqScan();
+    }
+
+    @Test
+    void commentEligibilityAndSummaryRefreshUseApprovedIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        plans.single("select", () -> bookingRepository.existsCompletedStay(1L, 1L, now))
+                .usesIndex("bookings_approved_booker_item_idx").noSeqScan();
+        Sharer owner = data.user();
+        Long itemId = data.item(owner);
+        plans.single("insert", () -> summaryRepository.refresh(itemId, now))
+                .usesIndex("items_pkey", "bookings_approved_item_end_idx").noSeqScan();
+    }
+
+    @Test
+    void phaseTransitionsFindDueRowsByIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        plans.single("update", () -> bookingRepository.finishDue(now, 100))
+                .usesIndex("bookings_phase_end_due_idx").noSeqScan();
+        plans.single("update", () -> bookingRepository.startDue(now, 100))
+                .usesIndex("bookings_phase_start_due_idx").noSeqScan();
+    }
+
+    private static String bookerIndex(BookingState state) {
+        return switch (state) {
+            case ALL -> "bookings_booker_start_idx";
+            case CURRENT, PAST, FUTURE -> "bookings_booker_phase_start_idx";
+            case WAITING, REJECTED -> "bookings_booker_status_start_idx";
+        };
+    }
+
+    private static String ownerIndex(BookingState state) {
+        return switch (state) {
+            case ALL -> "items_owner_idx";
+            case CURRENT, PAST, FUTURE -> "bookings_item_phase_start_idx";
+            case WAITING, REJECTED -> "bookings_item_status_start_idx";
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов, которые приложение действительно отправляет: SQL перехватывается {@link CapturedSql},
+ * параметры заменяются на $n и план строится через {@code explain (generic_plan)} — без значений,
+ * как для подготовленного запроса. Схема заполнена объёмом ({@link #ensureVolume}), чтобы выбор между индексами
+ * опирался на статистику, а seq scan выключен: на тысячах строк он дешевле, и план показывал бы не индекс,
+ * который выберет планировщик на больших таблицах, а таблицу целиком.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryPlans {
+
+    private final DataSourceProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Один раз на схему заполняет её объёмом из {@code sql/plan-volume.sql} и собирает статистику.
+     */
+    public void ensureVolume() {
+        Integer seeded = jdbcTemplate.queryForObject(
+                "select count(*) from users where email = 'plan-volume-0@test.ru'", Integer.class);
+        if (seeded != null && seeded == 0) {
+            new ResourceDatabasePopulator(new ClassPathResource("sql/plan-volume.sql"))
+                    .execute(jdbcTemplate.getDataSource());
+        }
+    }
+
+    /**
+     * Планы всех запросов, подготовленных за время {@code action}, в порядке выполнения.
+     */
+    public List<Plan> of(Runnable action) {
+        List<String> captured = CapturedSql.during(action);
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("set enable_seqscan = off");
+            return captured.stream().map(sql -> explain(statement, sql)).toList();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * План единственного запроса из {@code action}, текст которого начинается с {@code prefix}.
+     */
+    public Plan single(String prefix, Runnable action) {
+        List<Plan> plans = of(action).stream()
+                .filter(plan -> plan.sql().stripLeading().toLowerCase().startsWith(prefix))
+                .toList();
+        assertTrue(plans.size() == 1, "expected one '" + prefix + "' statement, got " + plans);
+        return plans.getFirst();
+    }
+
+    //простой протокол: в расширенном драйвер не отправит $n без значений
+    private Connection connect() throws SQLException {
+        String url = properties.determineUrl();
+        url += (url.contains("?") ? "&" : "?") + "preferQueryMode=simple";
+        return DriverManager.getConnection(url, properties.determineUsername(), properties.determinePassword());
+    }
+
+    private static Plan explain(Statement statement, String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') numbered.append('$').append(++n);
+            else numbered.append(c);
+        }
+        StringJoiner text = new StringJoiner("\n");
+        try (ResultSet rs = statement.executeQuery("explain (generic_plan) " + numbered)) {
+            while (rs.next()) text.add(rs.getString(1));
+        } catch (SQLException e) {
+            throw new IllegalStateException("explain failed: " + sql, e);
+        }
+        return new Plan(sql, text.toString());
+    }
+
+    public record Plan(String sql, String text) {
+
+        public Plan usesIndex(String... indexes) {
+            for (String index : indexes) {
+                assertTrue(uses(index), () -> "index " + index + " is not used:\n" + this);
+            }
+            return this;
+        }
+
+        public Plan noSeqScan() {
+            assertFalse(text.contains("Seq Scan"), () -> "seq scan:\n" + this);
+            return this;
+        }
+
+        //порядок страницы даёт индекс, а не сортировка всех подходящих строк
+        public Plan noSort() {
+            assertFalse(Pattern.compile("(^|\\s)(Incremental )?Sort\\b").matcher(text).find(), () -> "sort:\n" + this);
+            return this;
+        }
+
+        private boolean uses(String index) {
+            return Pattern.compile("(using|Index Scan on) " + index + "\\b").matcher(text).find();
+        }
+
+        @Override
+        public String toString() {
+            return sql + "\n" + text;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.user.identity.Sharer;
+import ru.practicum.shareit.user.identity.UserIdentity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.sql.SqlStatements.assertStatements;
+
+/**
+ * Маршруты с {@link SqlBudget} в худшем случае — кэши пусты, бронь и отзыв не найдены в памяти.
+ * Тестовый профиль включает budget-mode=fail, так что превышение бюджета — ответ 500;
+ * точный счёт показывает, из чего бюджет складывается.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class SqlBudgetTests {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private TestData data;
+    @Autowired
+    private UserIdentity userIdentity;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Sharer owner;
+    private Sharer booker;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void data() {
+        owner = data.user();
+        booker = data.user();
+        itemId = data.item(owner);
+        LocalDateTime now = LocalDateTime.now();
+        // завершённая бронь, о которой CompletedStays не знает: время сдвинуто в обход сервиса
+        Long past = data.booking(booker, itemId, now.plusDays(1), now.plusDays(2));
+        bookingService.approve(owner.id(), past, true);
+        jdbcTemplate.update("update bookings set start_time = ?, end_time = ? where id_booking = ?",
+                now.minusDays(3), now.minusDays(2), past);
+        bookingId = data.booking(booker, itemId, now.plusDays(5), now.plusDays(6));
+        userIdentity.clear();
+        itemCache.clear();
+    }
+
+    @Test
+    void users() throws Exception {
+        // вставка и рассылка о новом пользователе
+        route(2, post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"u\",\"email\":\"" + UUID.randomUUID() + "@test.ru\"}"));
+        route(1, get("/users/" + owner.id()));
+    }
+
+    @Test
+    void bookings() throws Exception {
+        // проверка пользователя и вставка
+        LocalDateTime start = LocalDateTime.now().plusDays(40);
+        route(2, post("/bookings").header(USER_HEADER, booker.id()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}"));
+        route(1, get("/bookings/" + bookingId).header(USER_HEADER, booker.id()));
+        // проверка пользователя и страница, для фаз перед ней — доводка фаз двумя update
+        for (BookingState state : BookingState.values()) {
+            int statements = switch (state) {
+                case CURRENT, PAST, FUTURE -> 4;
+                default -> 2;
+            };
+            userIdentity.clear();
+            route(statements, get("/bookings").header(USER_HEADER, booker.id()).param("state", state.name()));
+            userIdentity.clear();
+            route(statements, get("/bookings/owner").header(USER_HEADER, owner.id()).param("state", state.name())
+                    .param("after", ""));
+        }
+    }
+
+    @Test
+    void items() throws Exception {
+        // карточка и последние отзывы
+        route(2, get("/items/" + itemId).header(USER_HEADER, owner.id()));
+        itemCache.clear();
+        route(1, get("/items/" + itemId + "/availability")
+                .param("from", LocalDateTime.now().toString())
+                .param("to", LocalDateTime.now().plusDays(9).toString()));
+        // страница сводок и отзывы к ней
+        route(2, get("/items").header(USER_HEADER, owner.id()));
+        // отзывов нет — проверяется, есть ли вещь
+        route(2, get("/items/" + itemId + "/comments"));
+    }
+
+    @Test
+    void search() throws Exception {
+        // индекс в памяти и строки найденных вещей
+        route(1, get("/items/search").header(USER_HEADER, owner.id()).param("text", "вещь"));
+        // интервал раньше горизонта индекса броней — занятость из БД, затем строки вещей
+        route(2, get("/items/search").header(USER_HEADER, owner.id()).param("text", "вещь")
+                .param("start", LocalDateTime.now().minusDays(10).toString())
+                .param("end", LocalDateTime.now().plusDays(9).toString()));
+    }
+
+    @Test
+    void comment() throws Exception {
+        // проверка пользователя, перепроверка брони в БД, вставка, рассылка инвалидации кэша
+        route(4, post("/items/" + itemId + "/comment").header(USER_HEADER, booker.id())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"text\":\"ok\"}"));
+    }
+
+    @Test
+    void requests() throws Exception {
+        // хранилище в памяти: только проверка пользователя
+        route(1, get("/requests").header(USER_HEADER, owner.id()));
+        userIdentity.clear();
+        route(1, get("/requests/all").header(USER_HEADER, owner.id()));
+    }
+
+    private void route(int statements, MockHttpServletRequestBuilder request) throws Exception {
+        assertStatements(statements, () -> mvc.perform(request).andExpect(status().is2xxSuccessful()));
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.sql;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.enums.Role;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.identity.Sharer;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.sql.SqlStatements.assertStatements;
+
+/**
+ * Сколько запросов выполняют горячие чтения сервисов: страница — один select, без догрузок по строкам.
+ */
+@SpringBootTest
+@Import(TestData.class)
+class SqlStatementCountTests {
+
+    @Autowired
+    private TestData data;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void bookingListingIsOneSelectForEveryRoleAndState() throws Exception {
+        Sharer owner = data.user();
+        Sharer booker = data.user();
+        Long itemId = data.item(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            data.booking(booker, itemId, start.plusDays(2L * i), start.plusDays(2L * i + 1));
+        }
+
+        for (Role role : Role.values()) {
+            Sharer user = role == Role.OWNER ? owner : booker;
+            for (BookingState state : BookingState.values()) {
+                // фазы сначала доводятся до текущего момента: завершение и начало
+                int statements = switch (state) {
+                    case CURRENT, PAST, FUTURE -> 3;
+                    default -> 1;
+                };
+                assertStatements(statements, () -> bookingService.getBookings(user, role, state, 0, 2));
+                var first = assertStatements(statements,
+                        () -> bookingService.getBookingsAfter(user, role, state, "", 2));
+                if (first.next() != null) {
+                    assertStatements(statements,
+                            () -> bookingService.getBookingsAfter(user, role, state, first.next(), 2));
+                }
+            }
+        }
+    }
+
+    @Test
+    void ownerItemListIsPagePlusComments() throws Exception {
+        Sharer owner = data.user();
+        for (int i = 0; i < 3; i++) data.item(owner);
+
+        var items = assertStatements(2, () -> itemService.findAllByOwnerWithBookings(owner.id(), 0, 20));
+        assertEquals(3, items.size());
+        // пустая страница — без запроса отзывов
+        Long noItems = data.user().id();
+        assertStatements(1, () -> itemService.findAllByOwnerWithBookings(noItems, 0, 20));
+        var page = assertStatements(2, () -> itemService.findAllByOwnerWithBookingsAfter(owner.id(), "", 2));
+        assertStatements(2, () -> itemService.findAllByOwnerWithBookingsAfter(owner.id(), page.next(), 2));
+    }
+
+    @Test
+    void itemCardIsCardPlusCommentsThenCached() throws Exception {
+        Sharer owner = data.user();
+        Long itemId = data.item(owner);
+
+        assertStatements(2, () -> itemService.getById(owner.id(), itemId));
+        assertStatements(0, () -> itemService.getById(owner.id(), itemId));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Точный счёт SQL-запросов в тестах: сколько выполнений насчитал {@link CountingDataSource} за время действия.
+ * <pre>
+ * var page = SqlStatements.assertStatements(1, () -&gt; bookingService.getBookings(...));
+ * </pre>
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static <T> T assertStatements(int expected, Action<T> action) throws Exception {
+        try (var scope = SqlStatementCounter.open()) {
+            T result = action.run();
+            assertEquals(expected, scope.count(), "SQL statements");
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action<T> {
+        T run() throws Exception;
+    }
+}
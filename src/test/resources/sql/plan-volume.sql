@@ -0,0 +1,42 @@
+-- объём для QueryPlanTests: на почти пустых таблицах планировщик выбирает между индексами произвольно.
+-- 500 пользователей, 2000 вещей, по 20 непересекающихся броней на вещь — от прошлого до будущего, отзывы к части прошедших
+insert into users (name, email)
+select 'plan user ' || g, 'plan-volume-' || g || '@test.ru'
+from generate_series(0, 499) g;
+
+insert into items (name, description, available, owner_id)
+select 'plan item ' || g, 'описание ' || g, g % 5 <> 0, u.id_user
+from generate_series(0, 1999) g
+join users u on u.email = 'plan-volume-' || (g % 500) || '@test.ru';
+
+with i as (select id_item, owner_id, row_number() over (order by id_item) - 1 as n
+           from items where name like 'plan item %'),
+     u as (select id_user, row_number() over (order by id_user) - 1 as n
+           from users where email like 'plan-volume-%')
+insert into bookings (start_time, end_time, id_item, id_booker, status, phase)
+select s.start_time, s.start_time + interval '10 days', i.id_item, u.id_user,
+       case when k % 10 < 7 then 'APPROVED' when k % 10 < 9 then 'WAITING' else 'REJECTED' end,
+       case when s.start_time + interval '10 days' <= localtimestamp then 'PAST'
+            when s.start_time > localtimestamp then 'FUTURE'
+            else 'CURRENT' end
+from generate_series(0, 39999) k
+join i on i.n = k % 2000
+join u on u.n = (k % 500 + 1 + k / 2000) % 500
+cross join lateral (select localtimestamp - interval '300 days' + (k / 2000) * interval '20 days' as start_time) s
+where u.id_user <> i.owner_id;
+
+insert into comments (id_item, author_id, text, created)
+select b.id_item, b.id_booker, 'отзыв', b.end_time
+from bookings b
+join items i on i.id_item = b.id_item and i.name like 'plan item %'
+where b.status = 'APPROVED' and b.phase = 'PAST' and b.id_booking % 3 = 0;
+
+insert into item_summary (id_item)
+select id_item from items where name like 'plan item %'
+on conflict do nothing;
+
+analyze users;
+analyze items;
+analyze bookings;
+analyze comments;
+analyze item_summary;